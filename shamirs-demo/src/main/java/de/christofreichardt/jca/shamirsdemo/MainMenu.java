@@ -207,7 +207,7 @@ public class MainMenu  extends AbstractMenu {
             tracer.out().printfIndentln("secretSharing = %s", splitter);
             PasswordGenerator.erase(passwordSeq, '\u0000');
 
-            String certificationMethod = this.console.readString("All|Slices|None", "Certification method", "None");
+            String certificationMethod = this.console.readString("All|Analytic|Slices|Sample|None", "Certification method", "None");
             tracer.out().printfIndentln("certificationMethod = %s", certificationMethod);
             if (Objects.equals("All", certificationMethod)) {
                 ShamirsFacade.CertificationResult certificationResult = splitter.certified();
@@ -215,6 +215,18 @@ public class MainMenu  extends AbstractMenu {
                 splitter.savePartition(sizes, this.app.getCurrentWorkspace().resolve(partition));
                 System.console().printf("-------------------------------------------------------------\n");
                 System.console().printf("certificationResult = %s\n", certificationResult);
+            } else if (Objects.equals("Analytic", certificationMethod)) {
+                ShamirsFacade.CertificationResult certificationResult = splitter.certifiedAnalytically();
+                tracer.out().printfIndentln("certificationResult = %s", certificationResult);
+                splitter.savePartition(sizes, this.app.getCurrentWorkspace().resolve(partition));
+                System.console().printf("-------------------------------------------------------------\n");
+                System.console().printf("certificationResult = %s\n", certificationResult);
+            } else if (Objects.equals("Sample", certificationMethod)) {
+                ShamirsFacade.CertificationResult certificationResult = splitter.certifiedBySampling();
+                tracer.out().printfIndentln("certificationResult = %s", certificationResult);
+                splitter.savePartition(sizes, this.app.getCurrentWorkspace().resolve(partition));
+                System.console().printf("-------------------------------------------------------------\n");
+                System.console().printf("certificationResult = %s\n", certificationResult);
             } else if (Objects.equals("Slices", certificationMethod)) {
                 ShamirsFacade.CertificationResult certificationResult = splitter.saveCertifiedPartition(sizes, this.app.getCurrentWorkspace().resolve(partition));
                 tracer.out().printfIndentln("certificationResult = %s", certificationResult);
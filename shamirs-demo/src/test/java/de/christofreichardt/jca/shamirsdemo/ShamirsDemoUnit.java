@@ -44,12 +44,14 @@ import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.DrbgParameters;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.Provider;
 import java.security.Security;
 import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -363,6 +365,84 @@ public class ShamirsDemoUnit implements Traceable, WithAssertions {
         }
     }
 
+    @Test
+    @DisplayName("drbgPolicies")
+    void drbgPolicies() throws GeneralSecurityException {
+        AbstractTracer tracer = getCurrentTracer();
+        tracer.entry("void", this, "drbgPolicies()");
+
+        try {
+            final int LIMIT = 2000, LENGTH = 15;
+            for (DrbgParameters.Capability capability : DrbgParameters.Capability.values()) {
+                PasswordGenerator.DrbgPool drbgPool = new PasswordGenerator.DrbgPool(new PasswordGenerator.Configuration(capability, Duration.ofMillis(100)));
+                PasswordGenerator passwordGenerator = new PasswordGenerator(LENGTH, PasswordGenerator.alphanumeric(), drbgPool);
+                long start = System.nanoTime();
+                long distinctPasswords = passwordGenerator.generate()
+                        .parallel()
+                        .limit(LIMIT)
+                        .map(passwordCharSeq -> passwordCharSeq.toString())
+                        .distinct()
+                        .count();
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                tracer.out().printfIndentln("drbgPool = %s, passwords = %d, elapsed = %d ms", drbgPool, distinctPasswords, elapsed);
+                assertThat(distinctPasswords).isEqualTo(LIMIT);
+            }
+
+            Throwable thrown = catchThrowable(() -> new PasswordGenerator.Configuration(96, DrbgParameters.Capability.NONE, Duration.ZERO));
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+            thrown = catchThrowable(() -> new PasswordGenerator.Configuration(DrbgParameters.Capability.RESEED_ONLY, Duration.ofSeconds(-1)));
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            tracer.wayout();
+        }
+    }
+
+    @Test
+    @DisplayName("constructivePasswords")
+    void constructivePasswords() throws GeneralSecurityException {
+        AbstractTracer tracer = getCurrentTracer();
+        tracer.entry("void", this, "constructivePasswords()");
+
+        try {
+            final int COUNT = 1000, LENGTH = 4;
+            PasswordGenerator passwordGenerator = new PasswordGenerator(LENGTH, PasswordGenerator.all());
+            Set<char[]> requiredCharSets = new HashSet<>();
+            requiredCharSets.add(PasswordGenerator.umlauts());
+            requiredCharSets.add(PasswordGenerator.punctuationAndSymbols());
+            requiredCharSets.add(PasswordGenerator.alphanumeric());
+            Predicate<char[]> allClassesPresent = password -> requiredCharSets.stream()
+                    .allMatch(requiredCharSet -> {
+                        for (char c : password) {
+                            for (char required : requiredCharSet) {
+                                if (c == required) {
+                                    return true;
+                                }
+                            }
+                        }
+                        return false;
+                    });
+
+            char[][] passwords = passwordGenerator.generate(COUNT, requiredCharSets);
+            assertThat(passwords).hasSize(COUNT);
+            assertThat(Stream.of(passwords).allMatch(password -> password.length == LENGTH && allClassesPresent.test(password))).isTrue();
+            assertThat(passwordGenerator.generate(requiredCharSets)
+                    .limit(COUNT)
+                    .map(password -> password.toString().toCharArray())
+                    .allMatch(allClassesPresent)).isTrue();
+
+            char[] buffer = new char[LENGTH];
+            for (int i = 0; i < 10; i++) {
+                passwordGenerator.nextPassword(buffer);
+                tracer.out().printfIndentln("buffer = %s", new String(buffer));
+            }
+
+            Throwable thrown = catchThrowable(() -> new PasswordGenerator(2, PasswordGenerator.all()).generate(requiredCharSets));
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            tracer.wayout();
+        }
+    }
+
     private String formatBytes(byte[] bytes) {
         StringBuilder stringBuilder = new StringBuilder();
         for (int i = 0; i < bytes.length; i++) {
@@ -564,6 +644,9 @@ public class ShamirsDemoUnit implements Traceable, WithAssertions {
             tracer.out().printfIndentln("certificationResult = %s", certificationResult);
             assertThat(certificationResult.falsified()).isEqualTo(298); // '12 choose 1' + '12 choose 2' + '12 choose 3' = 12 + 66 + 220 = 298
             assertThat(certificationResult.verified()).isEqualTo(495); //'12 choose 4' = 495
+            ShamirsFacade.CertificationResult analyticResult = splitter.certifiedAnalytically();
+            tracer.out().printfIndentln("analyticResult = %s", analyticResult);
+            assertThat(analyticResult).isEqualTo(certificationResult);
             try (Stream<Path> paths = Files.list(Path.of(".", "json"))) {
                 paths.filter(path -> path.getFileName().toString().endsWith(".json"))
                         .forEach(path -> {
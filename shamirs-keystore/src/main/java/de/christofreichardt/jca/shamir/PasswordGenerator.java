@@ -27,9 +27,12 @@ import java.security.DrbgParameters;
 import static java.security.DrbgParameters.Capability.PR_AND_RESEED;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -50,6 +53,130 @@ public class PasswordGenerator implements Traceable {
         }
     }
 
+    /**
+     * Specifies the DRBG instances backing the password generation. With {@code PR_AND_RESEED} every call to the DRBG requests fresh entropy, which is
+     * the most conservative but also by far the slowest choice. {@code RESEED_ONLY} instances are reseeded whenever the reseed interval has elapsed
+     * and {@code NONE} instances are never reseeded at all. A zero reseed interval switches the periodical reseeding off.
+     *
+     * @param strength the security strength of the DRBG instances in bits
+     * @param capability the prediction resistance and reseeding capability of the DRBG instances
+     * @param reseedInterval the time between two periodical reseeds of an instance
+     */
+    static public record Configuration(int strength, DrbgParameters.Capability capability, Duration reseedInterval) {
+
+        /** the configuration used by the plain constructors: 256 bits with prediction resistance */
+        public static final Configuration DEFAULT = new Configuration(256, PR_AND_RESEED, Duration.ZERO);
+
+        public Configuration {
+            if (strength != 112 && strength != 128 && strength != 192 && strength != 256) {
+                throw new IllegalArgumentException("Unsupported security strength: " + strength);
+            }
+            Objects.requireNonNull(capability, "A capability is required.");
+            Objects.requireNonNull(reseedInterval, "A reseed interval is required.");
+            if (reseedInterval.isNegative()) {
+                throw new IllegalArgumentException("The reseed interval must not be negative.");
+            }
+        }
+
+        /**
+         * Creates a configuration with the given capability and a security strength of 256 bits.
+         *
+         * @param capability the prediction resistance and reseeding capability of the DRBG instances
+         * @param reseedInterval the time between two periodical reseeds of an instance
+         */
+        public Configuration(DrbgParameters.Capability capability, Duration reseedInterval) {
+            this(256, capability, reseedInterval);
+        }
+
+        boolean reseedsPeriodically() {
+            return this.capability.supportsReseeding() && !this.reseedInterval.isZero();
+        }
+    }
+
+    /**
+     * A fixed number of DRBG instances which can be shared by any number of {@link PasswordGenerator PasswordGenerator}s. A thread is always assigned
+     * to the same instance, hence threads contend for the internal lock of a DRBG instance only if they are assigned to the same slot. Provisioning
+     * many passwords therefore doesn't require the instantiation of a DRBG per generator.
+     */
+    static public class DrbgPool {
+        final Configuration configuration;
+        final SecureRandom[] drbgs;
+        final AtomicLongArray reseeded;
+
+        /**
+         * Creates a pool comprising one DRBG instance per available processor.
+         *
+         * @param configuration specifies the DRBG instances
+         * @throws GeneralSecurityException if no provider supports the required {@link SecureRandom SecureRandom} instance
+         */
+        public DrbgPool(Configuration configuration) throws GeneralSecurityException {
+            this(configuration, Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Creates a pool comprising the given number of DRBG instances.
+         *
+         * @param configuration specifies the DRBG instances
+         * @param size the number of DRBG instances
+         * @throws GeneralSecurityException if no provider supports the required {@link SecureRandom SecureRandom} instance
+         */
+        public DrbgPool(Configuration configuration, int size) throws GeneralSecurityException {
+            if (size < 1) {
+                throw new IllegalArgumentException("At least one DRBG instance is required.");
+            }
+            this.configuration = Objects.requireNonNull(configuration, "A configuration is required.");
+            this.drbgs = new SecureRandom[size];
+            this.reseeded = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                this.drbgs[i] = SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(
+                        configuration.strength(), configuration.capability(), "christof".getBytes()));
+                this.reseeded.set(i, System.nanoTime());
+            }
+        }
+
+        /**
+         * Gives the DRBG instance assigned to the calling thread. The instance will be reseeded first if the configured reseed interval has elapsed.
+         *
+         * @return the DRBG instance
+         */
+        public SecureRandom secureRandom() {
+            int index = (int) (Thread.currentThread().getId() % this.drbgs.length);
+            SecureRandom drbg = this.drbgs[index];
+            if (this.configuration.reseedsPeriodically()) {
+                long now = System.nanoTime();
+                long last = this.reseeded.get(index);
+                if (now - last >= this.configuration.reseedInterval().toNanos() && this.reseeded.compareAndSet(index, last, now)) {
+                    drbg.reseed();
+                }
+            }
+
+            return drbg;
+        }
+
+        /**
+         * Gives the configuration shared by all DRBG instances of this pool.
+         *
+         * @return the configuration
+         */
+        public Configuration configuration() {
+            return this.configuration;
+        }
+
+        /**
+         * Gives the number of DRBG instances within this pool.
+         *
+         * @return the number of DRBG instances
+         */
+        public int size() {
+            return this.drbgs.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("DrbgPool[configuration=%s, size=%d]", this.configuration, this.drbgs.length);
+        }
+    }
+
     private static final char[] ALPHANUMERIC = {'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q',
             'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L',
             'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z', '1', '2', '3', '4', '5', '6', '7',
@@ -114,7 +241,7 @@ public class PasswordGenerator implements Traceable {
         return Arrays.copyOf(ALL, ALL.length);
     }
 
-    final SecureRandom secureRandom;
+    final DrbgPool drbgPool;
     final int length;
     final char[] symbols;
 
@@ -136,8 +263,19 @@ public class PasswordGenerator implements Traceable {
      * @throws GeneralSecurityException if no provider supports the required {@link SecureRandom SecureRandom} instance
      */
     public PasswordGenerator(int length, char[] symbols) throws GeneralSecurityException {
-        this.secureRandom = SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(
-                256, PR_AND_RESEED, "christof".getBytes()));
+        this(length, symbols, new DrbgPool(Configuration.DEFAULT, 1));
+    }
+
+    /**
+     * Creates a PasswordGenerator instance with the specified length and given basic character set which draws its random numbers from the given
+     * {@link DrbgPool DrbgPool}. The pool might be shared with other generators.
+     *
+     * @param length the length of the generated passwords
+     * @param symbols the basic character set from which the passwords will be generated
+     * @param drbgPool provides the DRBG instances
+     */
+    public PasswordGenerator(int length, char[] symbols, DrbgPool drbgPool) {
+        this.drbgPool = Objects.requireNonNull(drbgPool, "A DRBG pool is required.");
         this.length = length;
         this.symbols = Arrays.copyOf(symbols, symbols.length);
     }
@@ -200,62 +338,132 @@ public class PasswordGenerator implements Traceable {
         return allFound;
     }
 
-    private boolean requiredCharacterFound(CharSequence passwordSeq, Set<char[]> requiredCharSets) {
+    private char[][] requiredCharSets(Set<char[]> requiredCharSets) {
+        requiredCharSets.forEach(requiredCharSet -> getCurrentTracer().out().printfIndentln("requiredChars = %s", Arrays.toString(requiredCharSet)));
+
+        boolean allRequiredCharsetsMatched = requiredCharSets.stream()
+                .allMatch(requiredCharSet -> requiredCharSet.length > 0 && matchRequiredCharSet(requiredCharSet));
+        if (!allRequiredCharsetsMatched) {
+            throw new IllegalArgumentException("Required character not present within given symbol set.");
+        }
+        if (requiredCharSets.size() > this.length) {
+            throw new IllegalArgumentException("Too many required character sets for the password length.");
+        }
+
         return requiredCharSets.stream()
-                .allMatch(requiredCharSet -> {
-                    boolean matched = false;
-                    for (char c : requiredCharSet) {
-                        matched = passwordSeq.chars().anyMatch(passwordChar -> c == passwordChar);
-                        if (matched) {
-                            break;
-                        }
-                    }
-                    return matched;
-                });
+                .map(requiredCharSet -> Arrays.copyOf(requiredCharSet, requiredCharSet.length))
+                .toArray(char[][]::new);
     }
 
     /**
      *  Generates a stream of passwords which will be built from the basic character set with the specified length. All of the generated passwords will contain at least
-     *  one of the characters of each required character set.
+     *  one of the characters of each required character set. The passwords are built constructively, that is one character of each required character set is
+     *  placed and the remaining positions are filled up from the basic character set before the characters are shuffled.
      *
      * @param requiredCharSets each generated password contains at least one character of each required character set
      * @return a password stream
      */
     public Stream<CharSequence> generate(Set<char[]> requiredCharSets) {
         AbstractTracer tracer = getCurrentTracer();
-        tracer.entry("Stream<CharSequence>", this, "generate(char[] requiredChars)");
+        tracer.entry("Stream<CharSequence>", this, "generate(Set<char[]> requiredCharSets)");
         try {
-            requiredCharSets.forEach(requiredCharSet -> tracer.out().printfIndentln("requiredChars = %s", Arrays.toString(requiredCharSet)));
+            char[][] required = requiredCharSets(requiredCharSets);
 
-            boolean allRequiredCharsetsMatched = requiredCharSets.stream()
-                    .allMatch(requiredCharSet -> matchRequiredCharSet(requiredCharSet));
-            if (!allRequiredCharsetsMatched) {
-                throw new IllegalArgumentException("Required character not present within given symbol set.");
+            return Stream.generate(() -> password(required));
+        } finally {
+            tracer.wayout();
+        }
+    }
+
+    /**
+     * Generates the given number of passwords in parallel. Each password is built from the basic character set with the specified length.
+     *
+     * @param count the number of passwords
+     * @return the passwords
+     */
+    public char[][] generate(int count) {
+        return generate(count, Set.of());
+    }
+
+    /**
+     * Generates the given number of passwords in parallel. Each password is built from the basic character set with the specified length and contains at least
+     * one of the characters of each required character set.
+     *
+     * @param count the number of passwords
+     * @param requiredCharSets each generated password contains at least one character of each required character set
+     * @return the passwords
+     */
+    public char[][] generate(int count, Set<char[]> requiredCharSets) {
+        AbstractTracer tracer = getCurrentTracer();
+        tracer.entry("char[][]", this, "generate(int count, Set<char[]> requiredCharSets)");
+        try {
+            tracer.out().printfIndentln("count = %d", count);
+            if (count < 0) {
+                throw new IllegalArgumentException("The number of passwords must not be negative.");
             }
 
-            return Stream.generate(() -> password())
-                    .filter(password -> requiredCharacterFound(password, requiredCharSets));
+            char[][] required = requiredCharSets(requiredCharSets);
+            char[][] passwords = new char[count][];
+            IntStream.range(0, count)
+                    .parallel()
+                    .forEach(i -> {
+                        passwords[i] = new char[this.length];
+                        fill(passwords[i], required, this.drbgPool.secureRandom());
+                    });
+
+            return passwords;
         } finally {
             tracer.wayout();
         }
     }
 
+    /**
+     * Writes a fresh password into the given buffer, which might be reused for any number of passwords. The buffer must have the specified password length.
+     *
+     * @param buffer receives the password
+     */
+    public void nextPassword(char[] buffer) {
+        if (buffer.length != this.length) {
+            throw new IllegalArgumentException("The buffer must match the password length.");
+        }
+        fill(buffer, new char[0][], this.drbgPool.secureRandom());
+    }
+
     CharSequence password() {
+        return password(new char[0][]);
+    }
+
+    CharSequence password(char[][] requiredCharSets) {
         AbstractTracer tracer = TracerFactory.getInstance().getDefaultTracer();
-        tracer.entry("CharSequence", this, "password()");
+        tracer.entry("CharSequence", this, "password(char[][] requiredCharSets)");
         try {
-            StringBuilder stringBuilder = new StringBuilder();
-            for (int i=0; i<this.length; i++) {
-                int index = secureRandom.nextInt(this.symbols.length);
-                stringBuilder.append(this.symbols[index]);
-            }
+            char[] buffer = new char[this.length];
+            fill(buffer, requiredCharSets, this.drbgPool.secureRandom());
 
-            return stringBuilder;
+            return CharBuffer.wrap(buffer);
         } finally {
             tracer.wayout();
         }
     }
 
+    private void fill(char[] buffer, char[][] requiredCharSets, SecureRandom secureRandom) {
+        int i = 0;
+        for (; i < requiredCharSets.length; i++) {
+            buffer[i] = requiredCharSets[i][secureRandom.nextInt(requiredCharSets[i].length)];
+        }
+        for (; i < buffer.length; i++) {
+            buffer[i] = this.symbols[secureRandom.nextInt(this.symbols.length)];
+        }
+        if (requiredCharSets.length > 0) {
+            for (int j = buffer.length - 1; j > 0; j--) {
+                int k = secureRandom.nextInt(j + 1);
+                char c = buffer[j];
+                buffer[j] = buffer[k];
+                buffer[k] = c;
+            }
+        }
+    }
+
     /**
      * Overwrites the provided {@link CharSequence} with the given fillingCharacter if possible.
      *
@@ -278,6 +486,7 @@ public class PasswordGenerator implements Traceable {
                     char[] filling = new char[charBuffer.limit()];
                     Arrays.fill(filling, fillingCharacter);
                     charBuffer.put(filling);
+                    charBuffer.clear();
                     erased = true;
                 } else {
                     erased = false;
@@ -1,9 +1,21 @@
 package de.christofreichardt.jca.shamir;
 
+import de.christofreichardt.scala.shamir.BatchSecretMerging;
+import de.christofreichardt.scala.shamir.BatchSecretSharing;
+import de.christofreichardt.scala.shamir.ByteWiseSecretMerging;
+import de.christofreichardt.scala.shamir.ByteWiseSecretSharing;
+import de.christofreichardt.scala.shamir.RobustSecretMerging;
+import de.christofreichardt.scala.shamir.SamplingCertifier;
 import de.christofreichardt.scala.shamir.SecretMerging;
 import de.christofreichardt.scala.shamir.SecretSharing;
+import de.christofreichardt.scala.shamir.SharePointPartitioning;
+import de.christofreichardt.scala.shamir.ShareRepair;
 import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import java.math.BigInteger;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
 import scala.Tuple2;
 import scala.collection.immutable.IndexedSeq;
 import scala.math.BigInt;
@@ -11,48 +23,173 @@ import scala.math.BigInt;
 public class ShamirsFacade {
 
     public char[] mergeSlicesToChars(Path[] paths) {
-        return SecretMerging.apply(paths).password();
+        return SecretMerging.recover(paths).password();
     }
 
     public byte[] mergeSlicesToBytes(Path[] paths) {
-        return SecretMerging.apply(paths).secretBytesAsArray();
+        return SecretMerging.recover(paths).secretBytesAsArray();
     }
 
     public char[] mergeSlicesToChars(JsonArray slices) {
-        return SecretMerging.apply(slices).password();
+        return SecretMerging.recover(slices).password();
     }
 
-    static public record CertificationResult(int falsified, int verified) {
+    public RobustMergeResult mergeSlicesRobustly(Path[] paths) {
+        RobustSecretMerging robustSecretMerging = SecretMerging.robust(paths);
+        return new RobustMergeResult(robustSecretMerging.password(), robustSecretMerging.inconsistentIndicesAsArray());
     }
 
+    public Map<String, char[]> mergeBatchSlicesToChars(Path[] paths) {
+        return BatchSecretMerging.passwords(BatchSecretMerging.apply(paths));
+    }
+
+    public Map<String, char[]> mergeBatchSlicesToChars(JsonArray slices) {
+        return BatchSecretMerging.passwords(BatchSecretMerging.apply(slices));
+    }
+
+    public JsonObject repairSlice(Path[] paths, BigInteger[] xs) {
+        return ShareRepair.apply(paths, xs);
+    }
+
+    static public record CertificationResult(long falsified, long verified, double errorBound) {
+        public CertificationResult(long falsified, long verified) {
+            this(falsified, verified, 0.0);
+        }
+    }
+
+    static public record RobustMergeResult(char[] password, int[] inconsistentIndices) {
+    }
+
+    public enum Scheme {PRIME_FIELD, BYTE_WISE}
+
     static public class Splitter {
         final SecretSharing secretSharing;
+        final ByteWiseSecretSharing byteWiseSecretSharing;
+        final SharePointPartitioning<?> sharing;
 
         public Splitter(int shares, int threshold, CharSequence password) {
             this.secretSharing = new SecretSharing(shares, threshold, password);
+            this.byteWiseSecretSharing = null;
+            this.sharing = this.secretSharing;
+        }
+
+        public Splitter(int shares, int threshold, CharSequence password, boolean standardPrime) {
+            this.secretSharing = new SecretSharing(shares, threshold, password, standardPrime);
+            this.byteWiseSecretSharing = null;
+            this.sharing = this.secretSharing;
+        }
+
+        public Splitter(int shares, int threshold, CharSequence password, Scheme scheme) {
+            if (scheme == Scheme.BYTE_WISE) {
+                this.secretSharing = null;
+                this.byteWiseSecretSharing = new ByteWiseSecretSharing(shares, threshold, password);
+                this.sharing = this.byteWiseSecretSharing;
+            } else {
+                this.secretSharing = new SecretSharing(shares, threshold, password);
+                this.byteWiseSecretSharing = null;
+                this.sharing = this.secretSharing;
+            }
+        }
+
+        private static CertificationResult toCertificationResult(SharePointPartitioning.CertificationResult certificationResult) {
+            return new CertificationResult(certificationResult.falsified(), certificationResult.verified(), certificationResult.errorBound());
+        }
+
+        public Scheme scheme() {
+            return this.byteWiseSecretSharing != null ? Scheme.BYTE_WISE : Scheme.PRIME_FIELD;
         }
 
+        /**
+         * Certifies the shares by merging every combination of shares with a share count equal to the threshold and every combination below the threshold.
+         * The effort grows exponentially with the number of shares.
+         *
+         * @return the numbers of falsified and verified combinations
+         */
         public CertificationResult certified() {
-            SecretSharing.CertificationResult certificationResult = this.secretSharing.certified();
-            return new CertificationResult(certificationResult.falsified(), certificationResult.verified());
+            if (this.byteWiseSecretSharing != null) {
+                return toCertificationResult(this.byteWiseSecretSharing.certified());
+            }
+            return toCertificationResult(this.secretSharing.exhaustivelyCertified());
+        }
+
+        /**
+         * Certifies the shares analytically by checking the x-coordinates, the polynomial and a single random combination above and below the threshold.
+         * The counts are given by the binomial sums the exhaustive certification would have checked. Only available for the prime field scheme.
+         *
+         * @return the numbers of falsified and verified combinations
+         * @throws UnsupportedOperationException for the byte-wise scheme
+         */
+        public CertificationResult certifiedAnalytically() {
+            if (this.byteWiseSecretSharing != null) {
+                throw new UnsupportedOperationException("Analytic certification requires the prime field scheme.");
+            }
+            return toCertificationResult(this.secretSharing.certified());
+        }
+
+        /**
+         * Certifies the shares statistically with the default confidence, error bound and time budget, see {@link #certifiedBySampling(double, double, Duration)}.
+         *
+         * @return the sample counts together with the error bound
+         * @throws UnsupportedOperationException for the byte-wise scheme
+         */
+        public CertificationResult certifiedBySampling() {
+            return certifiedBySampling(SamplingCertifier.DEFAULT_CONFIDENCE(), SamplingCertifier.DEFAULT_ERROR_BOUND(), SamplingCertifier.DEFAULT_TIME_BUDGET());
+        }
+
+        /**
+         * Certifies the shares statistically by merging uniformly distributed combinations above and below the threshold until the error bound has been
+         * reached or the time budget has been exhausted. Fails if not a single combination could be checked. Only available for the prime field scheme.
+         *
+         * @param confidence the desired confidence, e.g. 0.99
+         * @param maxErrorBound the desired upper bound of the fraction of failing combinations
+         * @param timeBudget the maximal sampling time per population
+         * @return the sample counts together with the error bound
+         * @throws UnsupportedOperationException for the byte-wise scheme
+         */
+        public CertificationResult certifiedBySampling(double confidence, double maxErrorBound, Duration timeBudget) {
+            if (this.byteWiseSecretSharing != null) {
+                throw new UnsupportedOperationException("Sampling certification requires the prime field scheme.");
+            }
+            SamplingCertifier sampler = new SamplingCertifier(confidence, maxErrorBound, timeBudget, this.secretSharing.random());
+            return toCertificationResult(this.secretSharing.certifyBySampling(sampler));
         }
 
         public CertificationResult saveCertifiedPartition(int[] sizes, Path path) {
-            SecretSharing.CertificationResult certificationResult = this.secretSharing.saveCertifiedPartition(sizes, path);
-            return new CertificationResult(certificationResult.falsified(), certificationResult.verified());
+            return toCertificationResult(this.sharing.saveCertifiedPartition(sizes, path));
+        }
+
+        public void savePartition(int[] sizes, Path path) {
+            this.sharing.savePartition(sizes, path);
+        }
+
+        public JsonArray partitionAsJson(int[] sizes) {
+            return this.sharing.partitionAsJson(sizes);
+        }
+
+        @Override
+        public String toString() {
+            return this.sharing.toString();
+        }
+    }
+
+    static public class BatchSplitter {
+        final BatchSecretSharing batchSecretSharing;
+
+        public BatchSplitter(int shares, int threshold, Map<String, CharSequence> passwords) {
+            this.batchSecretSharing = new BatchSecretSharing(shares, threshold, passwords);
         }
 
         public void savePartition(int[] sizes, Path path) {
-            this.secretSharing.savePartition(sizes, path);
+            this.batchSecretSharing.savePartition(sizes, path);
         }
 
         public JsonArray partitionAsJson(int[] sizes) {
-            return this.secretSharing.partitionAsJson(sizes);
+            return this.batchSecretSharing.partitionAsJson(sizes);
         }
 
         @Override
         public String toString() {
-            return this.secretSharing.toString();
+            return this.batchSecretSharing.toString();
         }
     }
 
@@ -64,6 +201,10 @@ public class ShamirsFacade {
         }
 
         public char[] password() {
+            if (this.splitter.byteWiseSecretSharing != null) {
+                ByteWiseSecretSharing byteWiseSecretSharing = this.splitter.byteWiseSecretSharing;
+                return ByteWiseSecretMerging.apply(byteWiseSecretSharing.sharePoints().take(byteWiseSecretSharing.threshold()).toIndexedSeq()).password();
+            }
             int threshold = this.splitter.secretSharing.threshold();
             IndexedSeq<Tuple2<BigInt, BigInt>> sharePoints = this.splitter.secretSharing.sharePoints().take(threshold).toIndexedSeq();
             BigInt prime = this.splitter.secretSharing.prime();
@@ -181,6 +181,35 @@ public class ShamirsKeystoreUnit implements Traceable {
         }
     }
 
+    @Test
+    @DisplayName("RoundTrip-3")
+    void roundTrip_3() {
+        AbstractTracer tracer = getCurrentTracer();
+        tracer.entry("void", this, "roundTrip_3()");
+
+        try {
+            String myPassword = "Dies-ist-streng-geheim";
+            final int SHARES = 8;
+            final int THRESHOLD = 4;
+            ShamirsFacade.Splitter splitter = new ShamirsFacade.Splitter(SHARES, THRESHOLD, myPassword, ShamirsFacade.Scheme.BYTE_WISE);
+            assertThat(splitter.scheme()).isEqualTo(ShamirsFacade.Scheme.BYTE_WISE);
+            ShamirsFacade.Merger merger = new ShamirsFacade.Merger(splitter);
+            assertThat(merger.password()).isEqualTo(myPassword.toCharArray());
+            final int[] SIZES = {4, 2, 2};
+            splitter.savePartition(SIZES, Path.of("json", "roundtrip-3", "partition"));
+            Path[] paths_1 = {Path.of("json", "roundtrip-3", "partition-0.json")};
+            assertThat(new ShamirsProtection(paths_1).getPassword()).isEqualTo(myPassword.toCharArray());
+            Path[] paths_2 = {Path.of("json", "roundtrip-3", "partition-1.json"), Path.of("json", "roundtrip-3", "partition-2.json")};
+            assertThat(new ShamirsProtection(paths_2).getPassword()).isEqualTo(myPassword.toCharArray());
+            Path[] paths_3 = {Path.of("json", "roundtrip-3", "partition-1.json")};
+            Throwable catched = catchThrowable(() -> new ShamirsProtection(paths_3).getPassword());
+            assertThat(catched).isInstanceOf(IllegalArgumentException.class);
+            assertThat(catched).hasMessage("requirement failed: Too few sharepoints.");
+        } finally {
+            tracer.wayout();
+        }
+    }
+
     @Test
     @DisplayName("Sun-Provider")
     void sunProvider() {
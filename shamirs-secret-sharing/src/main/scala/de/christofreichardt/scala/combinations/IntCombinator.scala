@@ -0,0 +1,230 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.combinations
+
+import java.util.Spliterator
+import java.util.function.Consumer
+import java.util.stream.{Stream, StreamSupport}
+
+/**
+ * Produces all combinations of k unordered integers which can be chosen from among n integers (k <= n) in lexicographic order, just like
+ * [[LazyBinomialCombinator]]. In contrast to the latter a combination is given by a single `Array[Int]` which will be updated in place, that is
+ * stepping through the combinations doesn't allocate anything. Consumers must copy a combination if they want to keep it. The combinations can be
+ * ranked and unranked in O(n), therefore a range of ranks can be split evenly, see [[spliterator]]. The binomial coefficients needed for ranking
+ * are precomputed, the total number of combinations must fit into a `Long`.
+ *
+ * @constructor Creates a problem instance "n choose k".
+ * @param n defines the basic set of integers
+ * @param k the number of integers which are to be chosen from the basic set
+ */
+class IntCombinator(val n: Int, val k: Int) {
+  require(k >= 0 && n >= k)
+  require(binomialCoefficient(n, k).isValidLong, "Too many combinations.")
+
+  // table(j)(d) == (j + d) choose j, all entries are bounded by "n choose k"
+  private val table: Array[Array[Long]] = {
+    val t = Array.ofDim[Long](k + 1, n - k + 1)
+    for (j <- 0 to k; d <- 0 to n - k) {
+      t(j)(d) = if (j == 0 || d == 0) 1L else t(j - 1)(d) + t(j)(d - 1)
+    }
+    t
+  }
+
+  /** the total number of combinations, that is "n choose k" */
+  val size: Long = table(k)(n - k)
+
+  private def binomial(a: Int, j: Int): Long = if (a < j) 0L else table(j)(a - j)
+
+  /**
+   * Gives the lexicographic smallest combination, e.g. (0,1,2) for k == 3.
+   *
+   * @return a fresh array comprising the first combination
+   */
+  def first: Array[Int] = Array.tabulate(k)(i => i)
+
+  /**
+   * Replaces the given combination by its lexicographic successor. Most of the time only the rightmost column changes, hence stepping through all
+   * combinations takes amortized constant time per combination.
+   *
+   * @param combination the current combination, will be updated in place
+   * @return false if the given combination has been the last one, the combination remains unchanged in that case
+   */
+  def advance(combination: Array[Int]): Boolean = {
+    var i = k - 1
+    while (i >= 0 && combination(i) == n - k + i) i = i - 1
+    if (i < 0) false
+    else {
+      combination(i) = combination(i) + 1
+      var j = i + 1
+      while (j < k) {
+        combination(j) = combination(j - 1) + 1
+        j = j + 1
+      }
+      true
+    }
+  }
+
+  /**
+   * Computes the position of the given combination within the lexicographic order.
+   *
+   * <pre>
+   *   rank(c) = (n choose k) - 1 - ((n-1-c(0)) choose k) - ((n-1-c(1)) choose (k-1)) - ... - ((n-1-c(k-1)) choose 1)
+   * </pre>
+   *
+   * @param combination a combination in ascending order
+   * @return the rank within [0, size)
+   */
+  def rank(combination: Array[Int]): Long = {
+    require(combination.length == k, "Dimension mismatch.")
+    var sum = 0L
+    var i = 0
+    while (i < k) {
+      sum = sum + binomial(n - 1 - combination(i), k - i)
+      i = i + 1
+    }
+    size - 1 - sum
+  }
+
+  /**
+   * Computes the combination at the given position within the lexicographic order, see [[rank]].
+   *
+   * @param rank the position within [0, size)
+   * @param combination receives the combination
+   */
+  def unrank(rank: Long, combination: Array[Int]): Unit = {
+    require(rank >= 0 && rank < size, "Rank out of range.")
+    require(combination.length == k, "Dimension mismatch.")
+    var m = size - 1 - rank
+    var a = n - 1
+    var i = 0
+    while (i < k) {
+      while (binomial(a, k - i) > m) a = a - 1
+      combination(i) = n - 1 - a
+      m = m - binomial(a, k - i)
+      a = a - 1
+      i = i + 1
+    }
+  }
+
+  /**
+   * Computes the combination at the given position within the lexicographic order, see [[rank]].
+   *
+   * @param rank the position within [0, size)
+   * @return a fresh array comprising the combination
+   */
+  def unrank(rank: Long): Array[Int] = {
+    val combination = new Array[Int](k)
+    unrank(rank, combination)
+    combination
+  }
+
+  /**
+   * Produces an iterator over all combinations. The iterator hands out the same array over and over again.
+   *
+   * @return the iterator
+   */
+  def iterator: Iterator[Array[Int]] = new Iterator[Array[Int]] {
+    private val combination = first
+    private var started = false
+    private var more = true
+
+    override def hasNext: Boolean = {
+      if (started && more) {
+        more = advance(combination)
+        started = false
+      }
+      more
+    }
+
+    override def next(): Array[Int] = {
+      if (!hasNext) throw new NoSuchElementException
+      started = true
+      combination
+    }
+  }
+
+  /**
+   * Gives a `Spliterator` over all combinations, see [[IntCombinator.RankSpliterator]].
+   *
+   * @return the spliterator
+   */
+  def spliterator: Spliterator[Array[Int]] = new IntCombinator.RankSpliterator(this, 0L, size)
+
+  /**
+   * Gives a sequential or parallel stream of all combinations. Consumers must copy the combinations if they want to keep them.
+   *
+   * @param parallel indicates a parallel stream
+   * @return the stream
+   */
+  def stream(parallel: Boolean): Stream[Array[Int]] = StreamSupport.stream(spliterator, parallel)
+
+  /**
+   * Gives a textual representation of the problem instance.
+   *
+   * @return the textual presentation
+   */
+  override def toString: String = String.format("IntCombinator[n=%d, k=%d]", this.n, this.k)
+}
+
+/**
+ * Provides the splittable traversal of the combination space.
+ */
+object IntCombinator {
+
+  /**
+   * Traverses the combinations with ranks within [from, to). Splitting halves the remaining rank range, the second half starts with an unranked
+   * combination and proceeds by stepping through the successors. Every spliterator updates its own array in place.
+   *
+   * @param combinator the problem instance
+   * @param from the inclusive lower bound of the ranks
+   * @param to the exclusive upper bound of the ranks
+   */
+  class RankSpliterator(val combinator: IntCombinator, from: Long, to: Long) extends Spliterator[Array[Int]] {
+    private var next = from
+    private var end = to
+    private var combination: Array[Int] = null
+
+    override def tryAdvance(action: Consumer[? >: Array[Int]]): Boolean = {
+      if (next >= end) false
+      else {
+        if (combination == null) combination = combinator.unrank(next)
+        else combinator.advance(combination)
+        next = next + 1
+        action.accept(combination)
+        true
+      }
+    }
+
+    override def trySplit(): Spliterator[Array[Int]] = {
+      val remaining = end - next
+      if (remaining < 2) null
+      else {
+        val middle = next + remaining / 2
+        val suffix = new RankSpliterator(combinator, middle, end)
+        end = middle
+        suffix
+      }
+    }
+
+    override def estimateSize(): Long = end - next
+
+    override def characteristics(): Int = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL
+  }
+}
\ No newline at end of file
@@ -47,6 +47,9 @@ class LazyBinomialCombinator(val n: Int, val k: Int) extends Tracing {
   /** we need to look backwards into a solution when checking for the next solution */
   val reversedIndices: IndexedSeq[Int] = this.firstSolution.indices.reverse
 
+  /** the total number of solutions, that is "n choose k" */
+  lazy val size: BigInt = binomialCoefficient(this.n, this.k)
+
   /**
    * Checks if there is a next solution for a given word.
    *
@@ -105,6 +108,31 @@ class LazyBinomialCombinator(val n: Int, val k: Int) extends Tracing {
    */
   def produceAll: LazyList[IndexedSeq[Int]] = solutions(this.firstSolution)
 
+  /**
+   * Computes the solution at the given position within the lexicographic order without producing the preceding solutions. Column by column the
+   * smallest value is chosen such that the number of solutions starting with the already chosen values and a smaller value at the current column
+   * doesn't exceed the remaining rank. Together with a uniformly distributed rank this gives uniformly distributed solutions.
+   *
+   * @param rank the position within [0, size)
+   * @return the solution
+   */
+  def unrank(rank: BigInt): IndexedSeq[Int] = {
+    require(rank >= 0 && rank < this.size, "Rank out of range.")
+    val (solution, _, _) = Range(0, this.k).foldLeft((IndexedSeq.empty[Int], 0, rank))((state, column) => {
+      val (chosen, start, remaining) = state
+      var value = start
+      var r = remaining
+      var count = binomialCoefficient(this.n - 1 - value, this.k - 1 - column)
+      while (r >= count) {
+        r = r - count
+        value = value + 1
+        count = binomialCoefficient(this.n - 1 - value, this.k - 1 - column)
+      }
+      (chosen :+ value, value + 1, r)
+    })
+    solution
+  }
+
   /**
    * Gives a textual representation of the problem instance.
    *
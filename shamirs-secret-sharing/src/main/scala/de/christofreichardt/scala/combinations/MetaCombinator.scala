@@ -21,10 +21,26 @@ package de.christofreichardt.scala.combinations
 
 /**
  * Produces all combinations from 'n choose 0' up to 'n choose n', that is the total number of the to be produced combinations
- * can be read from the nth line of Pascal's triangle.
+ * can be read from the nth line of Pascal's triangle. The combinations are produced by [[IntCombinator]] instances.
  *
  * @param n denotes the number of elements in the basic set
  */
 class MetaCombinator(val n: Int) {
-  lazy val solutions: IndexedSeq[LazyList[IndexedSeq[Int]]] = IndexedSeq.tabulate(n + 1)(k => new LazyBinomialCombinator(n, k).produceAll)
+
+  /** the combinators for 'n choose 0' up to 'n choose n' */
+  val combinators: IndexedSeq[IntCombinator] = IndexedSeq.tabulate(n + 1)(k => new IntCombinator(n, k))
+
+  /**
+   * All combinations grouped by size. Note that the `LazyList` instances memoize the combinations which have been evaluated so far, use [[iterator]]
+   * to traverse the combinations with constant memory.
+   */
+  lazy val solutions: IndexedSeq[LazyList[IndexedSeq[Int]]] = combinators.map(combinator => LazyList.from(combinator.iterator.map(combination => combination.toIndexedSeq)))
+
+  /**
+   * Produces an iterator over all combinations from 'n choose 0' up to 'n choose n'. The combinations are handed out as arrays which will be
+   * updated in place, hence only the current combination of each size resides on the heap.
+   *
+   * @return the iterator
+   */
+  def iterator: Iterator[Array[Int]] = combinators.iterator.flatMap(combinator => combinator.iterator)
 }
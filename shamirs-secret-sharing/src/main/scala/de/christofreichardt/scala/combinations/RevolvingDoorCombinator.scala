@@ -0,0 +1,109 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.combinations
+
+/**
+ * Produces all combinations of k unordered integers which can be chosen from among n integers (k <= n) in revolving-door order, see Knuth, TAOCP
+ * Vol. 4A, Algorithm 7.2.1.3R. In contrast to the lexicographic order of [[LazyBinomialCombinator]] two consecutive combinations differ by exactly
+ * one element, that is one integer leaves the combination and another one enters it. For k == 3 and n == 5 the sequence reads (0,1,2), (0,2,3),
+ * (1,2,3), (0,1,3), (0,3,4), (1,3,4), (2,3,4), (0,2,4), (1,2,4) and (0,1,4). Algorithms maintaining some state about the current combination,
+ * e.g. an interpolation, can therefore be updated incrementally instead of being recomputed from scratch. Every combination is given in ascending
+ * order.
+ *
+ * @constructor Creates a problem instance "n choose k".
+ * @param n defines the basic set of integers
+ * @param k the number of integers which are to be chosen from the basic set
+ */
+class RevolvingDoorCombinator(val n: Int, val k: Int) {
+  require(k >= 0 && n >= k)
+
+  /**
+   * Produces an iterator over all combinations. Each call gives a new and independent iterator.
+   *
+   * @return the iterator
+   */
+  def iterator: Iterator[IndexedSeq[Int]] = new Iterator[IndexedSeq[Int]] {
+
+    // c(1), ..., c(k) denote the current combination, c(k + 1) == n acts as sentinel
+    private val c: Array[Int] = Array.tabulate(k + 2)(j => if (j == k + 1) n else math.max(j - 1, 0))
+    private var more = true
+
+    override def hasNext: Boolean = more
+
+    override def next(): IndexedSeq[Int] = {
+      if (!more) throw new NoSuchElementException
+      val combination = IndexedSeq.tabulate(k)(i => c(i + 1))
+      more = advance()
+      combination
+    }
+
+    private def advance(): Boolean = {
+      if (k == 0) false
+      else if (k % 2 == 1 && c(1) + 1 < c(2)) {
+        c(1) = c(1) + 1
+        true
+      } else if (k % 2 == 0 && c(1) > 0) {
+        c(1) = c(1) - 1
+        true
+      } else {
+        var j = 2
+        var decrease = k % 2 == 1
+        var result: Option[Boolean] = None
+        while (result.isEmpty) {
+          if (j > k) result = Some(false)
+          else if (decrease) {
+            if (c(j) >= j) {
+              c(j) = c(j - 1)
+              c(j - 1) = j - 2
+              result = Some(true)
+            } else {
+              j = j + 1
+              decrease = false
+            }
+          } else {
+            if (c(j) + 1 < c(j + 1)) {
+              c(j - 1) = c(j)
+              c(j) = c(j) + 1
+              result = Some(true)
+            } else {
+              j = j + 1
+              decrease = true
+            }
+          }
+        }
+        result.get
+      }
+    }
+  }
+
+  /**
+   * Produces a `LazyList` of all combinations. Combinations are computed only when they are needed.
+   *
+   * @return a `LazyList` comprising the combinations
+   */
+  def produceAll: LazyList[IndexedSeq[Int]] = LazyList.from(iterator)
+
+  /**
+   * Gives a textual representation of the problem instance.
+   *
+   * @return the textual presentation
+   */
+  override def toString: String = String.format("RevolvingDoorCombinator[n=%d, k=%d]", this.n, this.k)
+}
\ No newline at end of file
@@ -24,4 +24,16 @@ package de.christofreichardt.scala
  * for the complete verification of a SecretSharing instance.
  */
 package object combinations {
+
+  /**
+   * Computes the binomial coefficient "n choose k", that is the number of combinations of k unordered integers which can be chosen from among n integers.
+   *
+   * @param n the size of the basic set
+   * @param k the number of chosen integers
+   * @return "n choose k", zero if k < 0 or k > n
+   */
+  def binomialCoefficient(n: Int, k: Int): BigInt = {
+    if (k < 0 || k > n) BigInt(0)
+    else Range.inclusive(1, math.min(k, n - k)).foldLeft(BigInt(1))((c, i) => c * (n - i + 1) / i)
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import scala.collection.mutable
+
+/**
+ * Analyzes the access structure of a sharepoint partition. Whether a coalition of slices is able to recover the secret depends solely on the summed
+ * slice sizes compared to the threshold, provided that the shares themselves have been certified. Hence the number of authorized and unauthorized
+ * coalitions can be counted by a subset-sum recurrence in O(m * threshold) for m slices instead of enumerating all 2&#94;m coalitions:
+ *
+ * <pre>
+ *   count(j, s) = count(j-1, s) + count(j-1, s - size(j)), sums above the threshold are collected at the threshold
+ * </pre>
+ *
+ * The minimal authorized coalitions, i.e. coalitions which become unauthorized if any slice is removed, are found by a depth-first search over the
+ * slices sorted by descending size. A branch is pruned as soon as the remaining slices cannot reach the threshold anymore or the threshold has been
+ * reached, since supersets of an authorized coalition are never minimal. The search is bounded by the number of requested coalitions, only the
+ * counts are computed eagerly.
+ *
+ * @constructor Creates the analyzer for the given slice sizes and threshold.
+ *
+ * @param sizes the number of sharepoints of each slice
+ * @param threshold the number of sharepoints required for the recovery of the secret
+ */
+class AccessStructure(val sizes: IndexedSeq[Int], val threshold: Int) {
+  require(sizes.forall(size => size >= 0), "Slice sizes must not be negative.")
+  require(threshold >= 1, "The threshold must be positive.")
+  require(sizes.length < 63, "Too many slices.")
+
+  // counts(s) == number of coalitions (including the empty one) with summed size s, counts(threshold) comprises all sums >= threshold
+  private val counts: Array[Long] = {
+    val initial = new Array[Long](threshold + 1)
+    initial(0) = 1L
+    sizes.foldLeft(initial)((cs, size) => {
+      val next = cs.clone()
+      Range.inclusive(0, threshold).foreach(sum => {
+        val target = math.min(sum + size, threshold)
+        next(target) = next(target) + cs(sum)
+      })
+      next
+    })
+  }
+
+  /** the number of coalitions with a summed size equal or above the threshold */
+  val authorizedCount: Long = counts(threshold)
+  /** the number of non-empty coalitions with a summed size below the threshold */
+  val unauthorizedCount: Long = counts.take(threshold).sum - 1
+
+  /**
+   * Checks if the given coalition is able to recover the secret.
+   *
+   * @param coalition some slice indices
+   * @return true if the summed size reaches the threshold
+   */
+  def isAuthorized(coalition: Iterable[Int]): Boolean = coalition.map(index => sizes(index)).sum >= threshold
+
+  /**
+   * Gives minimal authorized coalitions in the order of the depth-first search. The search stops as soon as the given number of coalitions has been
+   * found, since the number of all minimal authorized coalitions grows combinatorially, e.g. there are '40 choose 20' of them for 40 slices of size 1
+   * with threshold 20.
+   *
+   * @param limit the maximal number of coalitions
+   * @return minimal authorized coalitions given by ascending slice indices
+   */
+  def minimalAuthorized(limit: Int): IndexedSeq[IndexedSeq[Int]] = {
+    require(limit >= 0, "The limit must not be negative.")
+    val order = sizes.indices.sortBy(index => -sizes(index))
+    val remaining = order.scanRight(0)((index, sum) => sum + sizes(index))
+    val found = IndexedSeq.newBuilder[IndexedSeq[Int]]
+    var count = 0
+    val coalition = mutable.ArrayBuffer.empty[Int]
+
+    def search(position: Int, sum: Int): Unit = {
+      if (sum >= threshold) {
+        found += coalition.sorted.toIndexedSeq
+        count = count + 1
+      } else if (count < limit && position < order.length && sum + remaining(position) >= threshold) {
+        coalition += order(position)
+        search(position + 1, sum + sizes(order(position)))
+        coalition.remove(coalition.length - 1)
+        if (count < limit) search(position + 1, sum)
+      }
+    }
+
+    if (limit > 0) search(0, 0)
+    found.result()
+  }
+
+  /**
+   * Selects a small set of representative coalitions for the cryptographic verification. The authorized representatives are given by minimal
+   * authorized coalitions. The unauthorized representatives are derived from them by removing their smallest slice, i.e. they fall short of the
+   * threshold by as little as possible.
+   *
+   * @param limit the maximal number of representatives of each kind
+   * @return the authorized and the unauthorized representatives
+   */
+  def representatives(limit: Int): (IndexedSeq[IndexedSeq[Int]], IndexedSeq[IndexedSeq[Int]]) = {
+    require(limit > 0, "At least one representative is required.")
+    val authorized = minimalAuthorized(limit)
+    val unauthorized = {
+      if (authorized.isEmpty) IndexedSeq(sizes.indices.filter(index => sizes(index) > 0)).filter(coalition => coalition.nonEmpty)
+      else authorized.map(coalition => coalition.diff(IndexedSeq(coalition.minBy(index => sizes(index)))))
+        .filter(coalition => coalition.nonEmpty)
+        .distinct
+    }
+    (authorized, unauthorized)
+  }
+
+  override def toString: String = String.format("AccessStructure[sizes=(%s), threshold=%d, authorized=%d, unauthorized=%d]",
+    sizes.mkString(","), threshold: Integer, authorizedCount: java.lang.Long, unauthorizedCount: java.lang.Long)
+}
+
+/**
+ * Provides the defaults of the analysis.
+ */
+object AccessStructure {
+
+  /** the default number of cryptographically verified representatives of each kind */
+  val DEFAULT_REPRESENTATIVES = 64
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.diagnosis.Tracing
+import java.io.FileInputStream
+import java.nio.file.Path
+import java.util.stream.IntStream
+import jakarta.json.{Json, JsonArray, JsonObject}
+import scala.jdk.CollectionConverters
+
+/**
+ * Recovers many secrets whose shares have been taken at the same x-coordinates (mod the same prime), e.g. the secrets of a [[BatchSecretSharing]]. The
+ * Lagrange basis weights at x == 0 depend solely on the x-coordinates, hence they are computed only once and each secret is recovered by a single dot
+ * product with its y-coordinates.
+ *
+ * @constructor Creates a batch merger for the given x-coordinates and prime.
+ *
+ * @param xs pairwise different x-coordinates (mod prime)
+ * @param prime the prime modulus
+ */
+class BatchSecretMerging(val xs: IndexedSeq[BigInt], val prime: BigInt) extends Tracing {
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(xs.nonEmpty, "At least one x-coordinate is required.")
+  require(pairWiseDifferent(xs.map(x => x.mod(prime))), "Supporting points must be pairwise different and unambiguous.")
+
+  /** the Lagrange basis weights at x == 0 */
+  val weightsAtZero: IndexedSeq[BigInt] = LagrangeInterpolation.weights(xs.map(x => x.mod(prime)), BigInt(0), prime)
+
+  /**
+   * Recovers a single secret.
+   *
+   * @param ys the y-coordinates of the shares in the order of the x-coordinates
+   * @return the recovered secret
+   */
+  def merge(ys: IndexedSeq[BigInt]): RecoveredSecret = RecoveredSecret(bigIntToBytes(LagrangeInterpolation.dotProduct(weightsAtZero, ys, prime)))
+
+  /**
+   * Recovers the given secrets in parallel.
+   *
+   * @param yss for each secret the y-coordinates of its shares in the order of the x-coordinates
+   * @return the recovered secrets in the given order
+   */
+  def mergeAll(yss: IndexedSeq[IndexedSeq[BigInt]]): IndexedSeq[RecoveredSecret] = {
+    val results = Array.ofDim[RecoveredSecret](yss.length)
+    IntStream.range(0, yss.length).parallel().forEach(i => results(i) = merge(yss(i)))
+    results.toIndexedSeq
+  }
+
+  override def toString: String = String.format("BatchSecretMerging[xs=(%s), prime=%s]", xs.mkString(","), prime)
+}
+
+/**
+ * This object provides some operations to recover many secrets at once. Both multi-secret slices, see [[BatchSecretSharing]], and plain slices
+ * comprising the shares of a single secret are accepted. The secrets are grouped by their prime and x-coordinates, each group needs only a single
+ * computation of the basis weights.
+ */
+object BatchSecretMerging {
+
+  /**
+   * Directly calls the `BatchSecretMerging` primary constructor.
+   *
+   * @param xs pairwise different x-coordinates (mod prime)
+   * @param prime the prime modulus
+   * @return the batch merger
+   */
+  def apply(xs: IndexedSeq[BigInt], prime: BigInt): BatchSecretMerging = new BatchSecretMerging(xs, prime)
+
+  /**
+   * Recovers the given secrets. The first threshold shares of each secret will be used.
+   *
+   * @param sharePoints the shares keyed by the secret ids
+   * @param prime the prime modulus shared by all secrets
+   * @param threshold the number of shares required for the recovery of a secret
+   * @return the recovered secrets keyed by their ids
+   */
+  def apply(sharePoints: Map[String, IndexedSeq[(BigInt, BigInt)]], prime: BigInt, threshold: Int): Map[String, RecoveredSecret] = {
+    require(sharePoints.values.forall(ps => ps.length >= threshold), "Too few sharepoints.")
+    mergeGroups(sharePoints.toSeq.map({
+      case (secretId, ps) => (secretId, prime, ps.take(threshold))
+    }))
+  }
+
+  /**
+   * Combines JsonObjects each containing a slice of shares of one or more secrets.
+   *
+   * @param slices the JsonArray containing the slices
+   * @return the recovered secrets keyed by their ids
+   */
+  def apply(slices: JsonArray): Map[String, RecoveredSecret] = {
+    val jsonObjects = CollectionConverters.IteratorHasAsScala(slices.iterator()).asScala
+      .map(jsonValue => jsonValue.asJsonObject())
+      .toIndexedSeq
+    processSlices(jsonObjects)
+  }
+
+  /**
+   * Combines several JSON files each containing a slice of shares of one or more secrets.
+   *
+   * @param paths the paths to the JSON files
+   * @return the recovered secrets keyed by their ids
+   */
+  def apply(paths: Iterable[Path]): Map[String, RecoveredSecret] = {
+    val jsonObjects = paths.map(path => {
+      val fileIn = new FileInputStream(path.toFile)
+      try {
+        Json.createReader(fileIn).readObject()
+      } finally {
+        fileIn.close()
+      }
+    }).toIndexedSeq
+    processSlices(jsonObjects)
+  }
+
+  /**
+   * Combines several JSON files each containing a slice of shares of one or more secrets.
+   *
+   * @param paths the paths to the JSON files
+   * @return the recovered secrets keyed by their ids
+   */
+  def apply(paths: Array[Path]): Map[String, RecoveredSecret] = apply(paths.toSeq)
+
+  /**
+   * Decodes the recovered secrets as passwords. This is convenient when calling from Java.
+   *
+   * @param secrets the recovered secrets keyed by their ids
+   * @return the passwords keyed by the secret ids
+   */
+  def passwords(secrets: Map[String, RecoveredSecret]): java.util.Map[String, Array[Char]] = {
+    val passwords = new java.util.TreeMap[String, Array[Char]]()
+    secrets.foreach({
+      case (secretId, secret) => passwords.put(secretId, secret.password)
+    })
+    passwords
+  }
+
+  /**
+   * Extracts the shares from the given JSON array.
+   *
+   * @param sharePointsAsJson the JSON array of share points
+   * @return the shares
+   */
+  def sharePoints(sharePointsAsJson: JsonArray): IndexedSeq[(BigInt, BigInt)] = {
+    CollectionConverters.IteratorHasAsScala(sharePointsAsJson.iterator()).asScala
+      .map(jsonValue => jsonValue.asJsonObject().getJsonObject("SharePoint"))
+      .map(sp => (BigInt(sp.getJsonNumber("x").bigIntegerValue()), BigInt(sp.getJsonNumber("y").bigIntegerValue())))
+      .toIndexedSeq
+  }
+
+  private def processSlices(jsonObjects: Seq[JsonObject]): Map[String, RecoveredSecret] = {
+    require(jsonObjects.nonEmpty, "Empty Sequence.")
+    require(jsonObjects.forall(jsonObject => jsonObject.containsKey("PartitionId")), "No PartitionId found.")
+    require(jsonObjects.forall(jsonObject => !ByteWiseSecretMerging.isByteWise(jsonObject)), "Byte-wise slices aren't supported.")
+    val entries = jsonObjects.flatMap(jsonObject => {
+      val partitionId = jsonObject.getString("PartitionId")
+      val prime = BigInt(jsonObject.getJsonNumber("Prime").bigIntegerValue())
+      val threshold = jsonObject.getInt("Threshold")
+      if (BatchSecretSharing.isBatch(jsonObject)) {
+        CollectionConverters.IteratorHasAsScala(jsonObject.getJsonArray(BatchSecretSharing.SECRETS).iterator()).asScala
+          .map(jsonValue => jsonValue.asJsonObject())
+          .map(secret => (partitionId, secret.getString("SecretId"), prime, threshold, sharePoints(secret.getJsonArray("SharePoints"))))
+          .toSeq
+      } else {
+        Seq((partitionId, partitionId, prime, threshold, sharePoints(jsonObject.getJsonArray("SharePoints"))))
+      }
+    })
+    val secrets = entries.groupBy(entry => (entry._1, entry._2)).toSeq
+      .map({
+        case ((_, secretId), parts) =>
+          require(parts.forall(part => part._3 == parts.head._3 && part._4 == parts.head._4), "Inconsistent slices.")
+          val ps = parts.flatMap(part => part._5).distinct.toIndexedSeq
+          val threshold = parts.head._4
+          require(ps.length >= threshold, "Too few sharepoints.")
+          (secretId, parts.head._3, ps.take(threshold))
+      })
+    require(pairWiseDifferent(secrets.map(secret => secret._1)), "The secret ids must be unambiguous.")
+    mergeGroups(secrets)
+  }
+
+  private def mergeGroups(secrets: Seq[(String, BigInt, IndexedSeq[(BigInt, BigInt)])]): Map[String, RecoveredSecret] = {
+    secrets.groupBy(secret => (secret._2, secret._3.map(point => point._1)))
+      .toSeq
+      .flatMap({
+        case ((prime, xs), group) =>
+          val recovered = new BatchSecretMerging(xs, prime).mergeAll(group.map(secret => secret._3.map(point => point._2)).toIndexedSeq)
+          group.map(secret => secret._1).zip(recovered)
+      })
+      .toMap
+  }
+}
\ No newline at end of file
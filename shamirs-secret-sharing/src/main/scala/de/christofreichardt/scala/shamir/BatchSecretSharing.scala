@@ -0,0 +1,260 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.diagnosis.Tracing
+import de.christofreichardt.scala.utils.{JsonPrettyPrinter, RandomGenerator, SecureRandomProvider}
+import java.nio.file.Path
+import java.security.SecureRandom
+import java.util.UUID
+import java.util.stream.IntStream
+import jakarta.json.{Json, JsonArray, JsonObject}
+import scala.annotation.tailrec
+import scala.jdk.CollectionConverters
+
+/**
+ * Shares many secrets for the same custodians at once. All secrets share one prime modulus and one set of x-coordinates. Hence the powers of the
+ * x-coordinates are computed only once and each custodian receives a single slice comprising the shares of all secrets indexed by their ids. The random
+ * polynomials are chosen and evaluated in parallel, the given random source must therefore be thread-safe.
+ *
+ * @constructor Creates a new batch of secret sharing schemes with shares, threshold, the identified secrets and a secure random source.
+ *
+ * @param shares the number of shares per secret
+ * @param threshold the number of shares required for the recovery of a secret
+ * @param secrets the secrets together with their unambiguous ids
+ * @param random the secure random source
+ * @param standardPrime indicates if the prime modulus should be taken from the [[StandardPrimes]] registry
+ */
+class BatchSecretSharing(
+                          val shares: Int,
+                          val threshold: Int,
+                          val secrets: IndexedSeq[(String, IndexedSeq[Byte])],
+                          val random: SecureRandom,
+                          val standardPrime: Boolean)
+  extends Tracing {
+
+  /**
+   * Creates a new batch of secret sharing schemes with a random prime modulus and a default secure random source.
+   *
+   * @param shares the number of shares per secret
+   * @param threshold the number of shares required for the recovery of a secret
+   * @param secrets the secrets together with their unambiguous ids
+   */
+  def this(shares: Int, threshold: Int, secrets: IndexedSeq[(String, IndexedSeq[Byte])]) = this(shares, threshold, secrets, SecureRandomProvider.secureRandom, false)
+
+  /**
+   * Creates a new batch of secret sharing schemes from passwords keyed by their ids. This is convenient when calling from Java.
+   *
+   * @param shares the number of shares per secret
+   * @param threshold the number of shares required for the recovery of a secret
+   * @param passwords the actual secrets keyed by their ids, will be encoded with UTF-8
+   */
+  def this(shares: Int, threshold: Int, passwords: java.util.Map[String, CharSequence]) =
+    this(shares, threshold, CollectionConverters.MapHasAsScala(passwords).asScala.toIndexedSeq.map((secretId, password) => (secretId, charSequenceToByteArray(password).toIndexedSeq)))
+
+  /** An alias for shares */
+  val n: Int = shares
+  /** An alias for threshold */
+  val k: Int = threshold
+
+  require(n >= 2 && k >= 2, "We need at least two shares, otherwise we wouldn't need shares at all.")
+  require(k <= n, "The threshold must be less than or equal to the number of shares.")
+  require(secrets.nonEmpty, "At least one secret is required.")
+  require(pairWiseDifferent(secrets.map(secret => secret._1)), "The secret ids must be unambiguous.")
+  require(secrets.forall(secret => secret._2.length >= 2), "Too few secret bytes.")
+
+  /** the ids of the secrets */
+  val ids: IndexedSeq[String] = secrets.map(secret => secret._1)
+  /** the secrets encoded as non-negative BigInt numbers */
+  val ss: IndexedSeq[BigInt] = secrets.map(secret => bytes2BigInt(secret._2))
+  /** Used to compute random BigInt numbers */
+  val randomGenerator: RandomGenerator = new RandomGenerator(random)
+  /** The prime modulus shared by all secrets */
+  val prime: BigInt = choosePrime
+
+  require((BigInt(n)*BigInt(n)) <= prime, "Too much shares for given secrets.")
+  require(ss.forall(s => s < prime), "The encoded secrets must be strictly smaller than the prime modulus.")
+
+  private val bits = math.max(ss.max.bitLength * 2, prime.bitLength)
+  private val field = PrimeField(prime)
+
+  /** The random, pairwise different and non-zero x-coordinates shared by all secrets */
+  val xs: IndexedSeq[BigInt] = randomGenerator.nextDistinctBigInts(shares, bits, prime, Set(BigInt(0))).toIndexedSeq
+  /** the powers x&#94;0, ..., x&#94;(k-1) of each x-coordinate */
+  private val powerTable: IndexedSeq[IndexedSeq[BigInt]] = xs.map(x => Polynomial.powers(x, k - 1, prime))
+  /** for each secret the y-coordinates of its shares at the shared x-coordinates */
+  val ys: IndexedSeq[IndexedSeq[BigInt]] = computeShares
+  /** the partition id shared by all slices */
+  val id: String = UUID.randomUUID().toString
+  /** maps the secret ids onto their positions */
+  lazy val secretIndex: Map[String, Int] = ids.zipWithIndex.toMap
+
+  /**
+   * Calculates a random prime p exceeding all encoded secrets. If demanded, the smallest registered standard prime exceeding the bit length of the longest secret
+   * will be taken instead.
+   *
+   * @return a random or a standard prime
+   */
+  def choosePrime: BigInt = {
+    val BIT_OFFSET = 1
+    val bits = ss.map(s => s.bitLength).max + BIT_OFFSET
+    def randomPrime: BigInt = {
+      val prime = BigInt(bits, CERTAINTY, random)
+      VerifiedPrimes.register(prime)
+      prime
+    }
+
+    if (standardPrime) StandardPrimes.atLeast(bits).getOrElse(randomPrime)
+    else randomPrime
+  }
+
+  /**
+   * Chooses a random polynomial with degree k - 1 in the canonical form whose constant term is the given encoded secret.
+   *
+   * @param s the encoded secret
+   * @return the random polynomial
+   */
+  @tailrec
+  final def choosePolynomial(s: BigInt): Polynomial = {
+    val candidate = new Polynomial(randomGenerator.nextBigInts(k - 1, bits, prime).toIndexedSeq :+ s, prime, field)
+    if (candidate.degree == k - 1) candidate
+    else choosePolynomial(s)
+  }
+
+  /**
+   * Chooses the polynomials of all secrets and evaluates them at the shared x-coordinates by means of the precomputed powers. The secrets are processed in
+   * parallel, the polynomials are discarded afterwards.
+   *
+   * @return for each secret the y-coordinates of its shares
+   */
+  def computeShares: IndexedSeq[IndexedSeq[BigInt]] = {
+    val results = Array.ofDim[IndexedSeq[BigInt]](ss.length)
+    IntStream.range(0, ss.length).parallel().forEach(i => {
+      val polynomial = choosePolynomial(ss(i))
+      results(i) = powerTable.map(powers => polynomial.evaluateWith(powers))
+    })
+    results.toIndexedSeq
+  }
+
+  /**
+   * Gives the shares of the identified secret.
+   *
+   * @param secretId the id of the secret
+   * @return the shares
+   */
+  def sharePoints(secretId: String): IndexedSeq[(BigInt, BigInt)] = {
+    require(secretIndex.contains(secretId), String.format("Unknown secret id: %s", secretId))
+    xs.zip(ys(secretIndex(secretId)))
+  }
+
+  /**
+   * Translates the shares at the selected x-coordinates of all secrets into a single multi-secret slice.
+   *
+   * @param indices the selected x-coordinates
+   * @return the JSON object containing the shares of all secrets
+   */
+  def sliceAsJson(indices: IndexedSeq[Int]): JsonObject = {
+    val secretsBuilder = Json.createArrayBuilder()
+    ids.indices.foreach(i => {
+      val arrayBuilder = Json.createArrayBuilder()
+      indices.foreach(j => {
+        arrayBuilder.add(Json.createObjectBuilder()
+          .add("SharePoint", Json.createObjectBuilder()
+            .add("x", xs(j).bigInteger)
+            .add("y", ys(i)(j).bigInteger)))
+      })
+      secretsBuilder.add(Json.createObjectBuilder()
+        .add("SecretId", ids(i))
+        .add("SharePoints", arrayBuilder.build()))
+    })
+    Json.createObjectBuilder()
+      .add("PartitionId", id)
+      .add("Prime", prime.bigInteger)
+      .add("Threshold", threshold)
+      .add(BatchSecretSharing.SECRETS, secretsBuilder.build())
+      .build
+  }
+
+  /**
+   * Partitions the x-coordinates into disjunct index ranges according to the given sizes, one range per custodian.
+   *
+   * @param sizes denotes the number of shares of each custodian
+   * @return the index ranges in the order of the sizes
+   */
+  def partition(sizes: Iterable[Int]): IndexedSeq[IndexedSeq[Int]] = {
+    require(sizes.sum == shares, "The sum of the shares of each slice doesn't match the number of overall shares.")
+    require(sizes.forall(s => s <= k), "A particular slice must not exceed the threshold.")
+    val offsets = sizes.scanLeft(0)((offset, size) => offset + size).toIndexedSeq
+    offsets.indices.init.map(i => Range(offsets(i), offsets(i + 1)))
+  }
+
+  /**
+   * Converts the partition given by the sizes into a JSON array containing one multi-secret slice per custodian.
+   *
+   * @param sizes denotes the partition
+   * @return the JSON array of slices
+   */
+  def partitionAsJson(sizes: Array[Int]): JsonArray = {
+    val arrayBuilder = Json.createArrayBuilder()
+    partition(sizes).foreach(indices => arrayBuilder.add(sliceAsJson(indices)))
+    arrayBuilder.build()
+  }
+
+  /**
+   * Saves the partition given by the sizes, one multi-secret slice file per custodian. The file comprising all shares will be saved as well.
+   *
+   * @param sizes denotes the partition
+   * @param path the path to the partition file
+   */
+  def savePartition(sizes: Array[Int], path: Path): Unit = {
+    require(path.getParent.toFile.exists() && path.getParent.toFile.isDirectory)
+    val prettyPrinter = new JsonPrettyPrinter
+    prettyPrinter.print(path.getParent.resolve(path.getFileName.toString + ".json").toFile, sliceAsJson(xs.indices))
+    partition(sizes).map(indices => sliceAsJson(indices))
+      .zipWithIndex
+      .foreach({
+        case (jsonObject, i) => prettyPrinter.print(path.getParent.resolve(path.getFileName.toString + "-" + i + ".json").toFile, jsonObject)
+      })
+  }
+
+  /**
+   * Gives a textual representation of this batch without revealing any secret.
+   *
+   * @return the textual representation
+   */
+  override def toString: String = String.format("BatchSecretSharing[shares=%d, threshold=%d, secrets=%d, prime=%s]", shares: Integer, threshold: Integer, ss.length: Integer, prime)
+}
+
+/**
+ * Provides the layout of multi-secret slices.
+ */
+object BatchSecretSharing {
+
+  /** the key of the array comprising the shares of each secret within a multi-secret slice */
+  val SECRETS = "Secrets"
+
+  /**
+   * Checks if the given slice comprises the shares of several secrets.
+   *
+   * @param jsonObject the slice
+   * @return true if the slice is a multi-secret slice
+   */
+  def isBatch(jsonObject: JsonObject): Boolean = jsonObject.containsKey(SECRETS)
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+/**
+ * The straightforward field implementation backed by `BigInt` numbers, each of them reduced (mod prime).
+ *
+ * @constructor Creates the field for the given prime modulus.
+ *
+ * @param prime the prime modulus
+ */
+class BigIntField(val prime: BigInt) extends PrimeField {
+
+  type Element = BigInt
+
+  override def element(value: BigInt): BigInt = value.mod(prime)
+
+  override def toBigInt(element: BigInt): BigInt = element
+
+  override val zero: BigInt = BigInt(0)
+
+  override val one: BigInt = BigInt(1)
+
+  override def add(a: BigInt, b: BigInt): BigInt = (a + b).mod(prime)
+
+  override def subtract(a: BigInt, b: BigInt): BigInt = (a - b).mod(prime)
+
+  override def multiply(a: BigInt, b: BigInt): BigInt = (a * b).mod(prime)
+
+  override def inverse(a: BigInt): BigInt = a.modInverse(prime)
+
+  /**
+   * Sums up the products and reduces only once.
+   */
+  override def dotProduct(as: IndexedSeq[BigInt], bs: IndexedSeq[BigInt]): BigInt = {
+    require(as.length == bs.length, "Dimension mismatch.")
+    as.indices.foldLeft(BigInt(0))((sum, i) => sum + as(i) * bs(i)).mod(prime)
+  }
+
+  /**
+   * Reduces once per step, that is after the multiplication and the addition have been carried out.
+   */
+  override def horner(coefficients: Seq[BigInt], x: BigInt): BigInt = coefficients.foldLeft(BigInt(0))((t, c) => (t * x + c).mod(prime))
+
+  override def toString: String = String.format("BigIntField[prime=%s]", prime)
+}
\ No newline at end of file
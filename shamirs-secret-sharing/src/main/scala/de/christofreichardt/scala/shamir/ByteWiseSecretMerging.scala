@@ -0,0 +1,87 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.diagnosis.Tracing
+import java.util.Base64
+import jakarta.json.JsonObject
+import scala.jdk.CollectionConverters
+
+/**
+ * Recovers the original secret bytes by combining the given byte-wise shares, see [[ByteWiseSecretSharing]]. The Lagrange weights at x == 0 depend
+ * solely on the x-coordinates and are computed only once. Each secret byte is then given by a linear combination of the y-bytes at the same position.
+ *
+ * @constructor Creates a immutable `ByteWiseSecretMerging` instance.
+ *
+ * @param sharePoints the shares
+ */
+class ByteWiseSecretMerging(val sharePoints: IndexedSeq[(Int, IndexedSeq[Byte])]) extends Tracing with RecoveredSecret {
+
+  require(sharePoints.nonEmpty, "No sharepoints.")
+  require(sharePoints.forall(p => p._1 > 0 && p._1 < GF256.ORDER), "The x-coordinates must be non-zero elements of GF(256).")
+  require(pairWiseDifferent(sharePoints.map(p => p._1)), "Supporting points must be pairwise different and unambiguous.")
+  require(sharePoints.forall(p => p._2.length == sharePoints.head._2.length), "All sharepoints must comprise the same number of bytes.")
+
+  /** the Lagrange weights at x == 0 */
+  val weights: IndexedSeq[Int] = GF256.weightsAtZero(sharePoints.map(p => p._1))
+  /** the actual (recovered) secret bytes */
+  val secretBytes: IndexedSeq[Byte] = {
+    val length = sharePoints.head._2.length
+    val result = Array.ofDim[Byte](length)
+    GF256.combineInto(weights, sharePoints.map(p => p._2.toArray), length, result)
+    result.toIndexedSeq
+  }
+}
+
+/**
+ * This object provides some operations to create `ByteWiseSecretMerging` instances.
+ */
+object ByteWiseSecretMerging {
+
+  /**
+   * Directly calls the `ByteWiseSecretMerging` primary constructor.
+   *
+   * @param sharePoints the shares
+   * @return the immutable `ByteWiseSecretMerging` instance
+   */
+  def apply(sharePoints: IndexedSeq[(Int, IndexedSeq[Byte])]): ByteWiseSecretMerging = new ByteWiseSecretMerging(sharePoints)
+
+  /**
+   * Indicates if the given slice has been marked as byte-wise slice.
+   *
+   * @param slice the JSON slice
+   * @return true if the slice contains byte-wise shares
+   */
+  def isByteWise(slice: JsonObject): Boolean = slice.containsKey("Scheme") && slice.getString("Scheme") == ByteWiseSecretSharing.SCHEME
+
+  /**
+   * Extracts the byte-wise shares from the given JSON slice.
+   *
+   * @param slice the JSON slice
+   * @return the shares
+   */
+  def sharePoints(slice: JsonObject): IndexedSeq[(Int, IndexedSeq[Byte])] = {
+    require(isByteWise(slice), "Not a byte-wise slice.")
+    CollectionConverters.IteratorHasAsScala(slice.getJsonArray("SharePoints").iterator()).asScala
+      .map(jsonValue => jsonValue.asJsonObject().getJsonObject("SharePoint"))
+      .map(sp => (sp.getInt("x"), Base64.getDecoder.decode(sp.getString("y")).toIndexedSeq))
+      .toIndexedSeq
+  }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.combinations.{IntCombinator, MetaCombinator}
+import de.christofreichardt.scala.diagnosis.Tracing
+import de.christofreichardt.scala.utils.SecureRandomProvider
+import java.security.SecureRandom
+import java.util.{Base64, UUID}
+import jakarta.json.{Json, JsonObject}
+
+/**
+ * A secret sharing sheme over GF(2&#94;8). In contrast to [[SecretSharing]] the secret won't be encoded as a single number requiring a prime modulus
+ * exceeding the whole secret. Instead each byte of the secret is shared independently by a random polynomial over GF(256), see [[GF256]]. All
+ * polynomials are evaluated at the same x-coordinates, hence a share consists of a non-zero x-coordinate and as many y-bytes as there are secret
+ * bytes. Splitting and merging scale linearly with the length of the secret. Note that at most 255 shares are possible.
+ *
+ * @constructor Creates a new byte-wise SecretSharing sheme with shares, threshold, secretBytes and a secure random source.
+ *
+ * @param shares the number of shares
+ * @param threshold the number of shares required for the recovery of the secret bytes
+ * @param secretBytes the actual secret
+ * @param random the secure random source
+ */
+class ByteWiseSecretSharing(
+                             val shares: Int,
+                             val threshold: Int,
+                             val secretBytes: IndexedSeq[Byte],
+                             val random: SecureRandom)
+  extends Tracing with SharePointPartitioning[(Int, IndexedSeq[Byte])] {
+
+  /**
+   * Creates a new byte-wise SecretSharing sheme with shares, threshold, secretBytes and a default secure random source.
+   *
+   * @param shares the number of shares
+   * @param threshold the number of shares required for the recovery of the secret bytes
+   * @param secretBytes the actual secret
+   */
+  def this(shares: Int, threshold: Int, secretBytes: IndexedSeq[Byte]) = this(shares, threshold, secretBytes, SecureRandomProvider.secureRandom)
+
+  /**
+   * Creates a new byte-wise SecretSharing sheme with shares, threshold, secretBytes and a default secure random source. This is convenient when calling from Java.
+   *
+   * @param shares the number of shares
+   * @param threshold the number of shares required for the recovery of the secret bytes
+   * @param secretBytes the actual secret
+   */
+  def this(shares: Int, threshold: Int, secretBytes: Array[Byte]) = this(shares, threshold, secretBytes.toIndexedSeq, SecureRandomProvider.secureRandom)
+
+  /**
+   * Creates a new byte-wise SecretSharing sheme with shares, threshold, password and a default secure random source.
+   *
+   * @param shares the number of shares
+   * @param threshold the number of shares required for the recovery of the secret bytes
+   * @param password the actual secret, will be encoded with UTF-8
+   */
+  def this(shares: Int, threshold: Int, password: CharSequence) = this(shares, threshold, charSequenceToByteArray(password))
+
+  /** An alias for shares */
+  val n: Int = shares
+  /** An alias for threshold */
+  val k: Int = threshold
+
+  require(n >= 2 && k >= 2, "We need at least two shares, otherwise we wouldn't need shares at all.")
+  require(k <= n, "The threshold must be less than or equal to the number of shares.")
+  require(n < GF256.ORDER, "GF(256) provides at most 255 non-zero x-coordinates.")
+  require(secretBytes.length >= 2, "Too few secret bytes.")
+
+  /** The random, pairwise different and non-zero x-coordinates */
+  val xs: IndexedSeq[Int] = new scala.util.Random(random).shuffle(Range(1, GF256.ORDER).toIndexedSeq).take(n)
+  /** The actual shares */
+  val sharePoints: IndexedSeq[(Int, IndexedSeq[Byte])] = computeShares
+
+  /** The partition id */
+  val id: String = UUID.randomUUID().toString
+  /**
+   * Indicates if cross checks with all possible combinations of shares with a sharepoint count that equals the threshold have successfully produced the secret.
+   */
+  lazy val verified: (Boolean, Long) = verifyAll
+  /**
+   * Ensures that all combinations of shares below the threshold have failed to produce the secret.
+   */
+  lazy val falsified: (Boolean, Long) = falsifyAll
+  /**
+   * Indicates that both [[verified]] and [[falsified]] have produced the expected results
+   */
+  lazy val certified: CertificationResult = {
+    assert(verified._1 && falsified._1, "Generic sharepoint certification failed.")
+    CertificationResult(falsified._2, verified._2)
+  }
+
+  /**
+   * Chooses a random coefficient array for each power below the threshold, appends the secret as constant term and evaluates the resulting
+   * polynomials at each x-coordinate. The coefficients are erased afterwards.
+   *
+   * @return the shares
+   */
+  def computeShares: IndexedSeq[(Int, IndexedSeq[Byte])] = {
+    val coefficients = IndexedSeq.fill(k - 1)({
+      val bytes = Array.ofDim[Byte](secretBytes.length)
+      random.nextBytes(bytes)
+      bytes
+    }) :+ secretBytes.toArray
+    try {
+      xs.map(x => (x, GF256.evaluate(coefficients, x).toIndexedSeq))
+    } finally {
+      coefficients.foreach(c => java.util.Arrays.fill(c, 0.toByte))
+    }
+  }
+
+  /**
+   * Verifies that all combinations of shares with a sharepoint count that equals the threshold recover the secret bytes.
+   *
+   * @return indicates the outcome of all possible and valid cross checks
+   */
+  def verifyAll: (Boolean, Long) = {
+    val combinator = new IntCombinator(this.n, this.k)
+    var count = 0L
+    val verified = combinator.iterator
+      .forall(combination => {
+        val merger = ByteWiseSecretMerging(combination.toIndexedSeq.map(index => sharePoints(index)))
+        count = count + 1
+        merger.secretBytes == secretBytes
+      })
+    (verified, count)
+  }
+
+  /**
+   * Ensures that all combinations of shares below the threshold fail to recover the secret bytes.
+   *
+   * @return indicates the outcome of all invalid cross checks
+   */
+  def falsifyAll: (Boolean, Long) = {
+    var count = 0L
+    val falsified = Range(1, this.threshold).iterator // skips 'n choose 0' -> {}
+      .flatMap(k => new IntCombinator(this.shares, k).iterator)
+      .forall(combination => {
+        val merger = ByteWiseSecretMerging(combination.toIndexedSeq.map(index => sharePoints(index)))
+        count = count + 1
+        merger.secretBytes != this.secretBytes
+      })
+    (falsified, count)
+  }
+
+  /**
+   * Translates the given shares into JSON. The slice will be marked by the [[ByteWiseSecretSharing.SCHEME]] and the y-bytes are encoded with Base64.
+   *
+   * @param ps the shares
+   * @return the JSON containing the shares
+   */
+  def sharePointsAsJson(ps: IndexedSeq[(Int, IndexedSeq[Byte])]): JsonObject = {
+    val arrayBuilder = Json.createArrayBuilder()
+    ps.foreach(ps => {
+      arrayBuilder.add(Json.createObjectBuilder()
+        .add("SharePoint", Json.createObjectBuilder()
+          .add("x", ps._1)
+          .add("y", Base64.getEncoder.encodeToString(ps._2.toArray))))
+    })
+    Json.createObjectBuilder()
+      .add("PartitionId", id)
+      .add("Scheme", ByteWiseSecretSharing.SCHEME)
+      .add("Threshold", threshold)
+      .add("SharePoints", arrayBuilder.build())
+      .build
+  }
+
+  /**
+   * Certifies a given sharepoint partition by falsifying all slice combinations with a sharepoint count below the threshold and vice versa by verifying all valid
+   * slice combinations with a sharepoint count equal or above the threshold.
+   *
+   * @param partition the given sharepoint partition
+   * @return the result of the certification if successful
+   */
+  def certifySharePointPartition(partition: List[IndexedSeq[(Int, IndexedSeq[Byte])]]): CertificationResult = {
+
+    def evaluateSharePointPartition(seqSizePredicate: IndexedSeq[(Int, IndexedSeq[Byte])] => Boolean,
+                                    bytesPredicate: IndexedSeq[Byte] => Boolean): Long = {
+      val indexedPartition = partition.toIndexedSeq
+      val metaCombinator = new MetaCombinator(indexedPartition.length)
+      var count = 0L
+      metaCombinator.iterator
+        .dropWhile(indices => indices.isEmpty)
+        .map(indices => indices.toIndexedSeq.flatMap(index => indexedPartition(index)))
+        .filter(seqSizePredicate)
+        .forall(sliceCombination => {
+          count = count + 1
+          bytesPredicate(ByteWiseSecretMerging(sliceCombination).secretBytes)
+        })
+        .ensuring(verified => verified, "Certification of sharepoint partition failed.")
+
+      count
+    }
+
+    val falsifiedCount = evaluateSharePointPartition(points => points.size < this.threshold, bytes => bytes != this.secretBytes)
+    val verifiedCount = evaluateSharePointPartition(points => points.size >= this.threshold, bytes => bytes == this.secretBytes)
+    CertificationResult(falsifiedCount, verifiedCount)
+  }
+
+  /**
+   * Gives a textual representation of this particular secret sharing sheme. The secret and the share bytes won't be revealed.
+   * @return the textual representation
+   */
+  override def toString: String = String.format("ByteWiseSecretSharing[shares=%d, threshold=%d, length=%d, xs=(%s)]", shares: Integer, threshold: Integer, secretBytes.length: Integer, xs.mkString(","))
+}
+
+/**
+ * Provides the marker of the byte-wise sharing scheme.
+ */
+object ByteWiseSecretSharing {
+
+  /** marks JSON slices containing byte-wise shares */
+  val SCHEME = "GF(256)"
+}
\ No newline at end of file
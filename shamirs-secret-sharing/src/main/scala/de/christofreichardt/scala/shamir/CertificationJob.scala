@@ -0,0 +1,298 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.combinations.{IntCombinator, binomialCoefficient}
+import de.christofreichardt.scala.utils.JsonPrettyPrinter
+import jakarta.json.{Json, JsonObject}
+import java.io.FileInputStream
+import java.nio.file.{Files, Path, StandardCopyOption}
+import java.security.MessageDigest
+import java.util.Base64
+import scala.jdk.CollectionConverters
+
+/**
+ * A resumable and shardable exhaustive certification. The combination space comprises all combinations of 1 up to k shares and is linearly ordered
+ * by the size of the combinations first and by the lexicographic rank second, see [[IntCombinator]]. The space can be split into rank ranges, see
+ * [[shards]], which can be processed independently, e.g. by different worker JVMs. Each worker records its progress in a checkpoint file and resumes
+ * from there after an interruption. At last the checkpoints are merged into the overall counts.
+ *
+ * Workers don't need the secret itself, a recovered secret is recognized by its SHA-256 digest. Note however that the job comprises all shares and
+ * must be protected accordingly.
+ *
+ * @constructor Creates a certification job.
+ *
+ * @param id the job id, i.e. the partition id of the certified scheme
+ * @param prime the prime modulus
+ * @param threshold the number of shares required for the recovery of the secret
+ * @param sharePoints all shares
+ * @param secretDigest the SHA-256 digest of the secret bytes
+ */
+class CertificationJob(val id: String, val prime: BigInt, val threshold: Int, val sharePoints: IndexedSeq[(BigInt, BigInt)], val secretDigest: IndexedSeq[Byte]) {
+  require(threshold >= 2 && threshold <= sharePoints.length, "Invalid threshold.")
+  require(Range.inclusive(1, threshold).map(k => binomialCoefficient(sharePoints.length, k)).sum.isValidLong, "Too many combinations.")
+
+  private val combinators: IndexedSeq[IntCombinator] = Range.inclusive(1, threshold).map(k => new IntCombinator(sharePoints.length, k))
+  private val offsets: IndexedSeq[Long] = combinators.scanLeft(0L)((offset, combinator) => offset + combinator.size)
+  private lazy val field: PrimeField = PrimeField.montgomery(prime)
+
+  /** the total number of combinations */
+  val size: Long = offsets.last
+
+  /**
+   * Splits the combination space into rank ranges of (almost) equal size.
+   *
+   * @param count the number of shards
+   * @return the shards
+   */
+  def shards(count: Int): IndexedSeq[CertificationJob.Shard] = {
+    require(count > 0, "At least one shard is required.")
+    val bounds = Range.inclusive(0, count).map(i => (BigInt(size) * i / count).toLong)
+    Range(0, count).map(i => CertificationJob.Shard(bounds(i), bounds(i + 1)))
+  }
+
+  /**
+   * Processes the given shard. The combinations with a share count equal to the threshold must recover the secret whereas all smaller combinations must
+   * fail. If the checkpoint file exists the processing resumes at the recorded rank. The checkpoint is updated after every `interval` combinations and
+   * when the shard has been completed. A failed check raises an `AssertionError`, the checkpoint remains at the last successfully checked rank then.
+   * The processing can be interrupted by means of `Thread.interrupt()`. The interruption is noticed at the next checkpoint, the processing stops after
+   * the checkpoint has been saved and can be resumed later on.
+   *
+   * @param shard the shard
+   * @param checkpoint the checkpoint file
+   * @param interval the number of combinations between two checkpoints
+   * @return the final progress
+   * @throws InterruptedException if the processing has been interrupted
+   */
+  @throws[InterruptedException]
+  def process(shard: CertificationJob.Shard, checkpoint: Path, interval: Int): CertificationJob.Progress = {
+    require(shard.from >= 0 && shard.from <= shard.to && shard.to <= size, "Invalid shard.")
+    require(interval > 0, "Invalid checkpoint interval.")
+    val initial = {
+      if (Files.exists(checkpoint)) {
+        val recorded = CertificationJob.Progress.read(checkpoint)
+        require(recorded.jobId == id && recorded.shard == shard, "The checkpoint belongs to another job or shard.")
+        recorded
+      } else CertificationJob.Progress(id, shard, shard.from, 0L, 0L)
+    }
+    val interpolation = new IncrementalInterpolation(sharePoints, prime, field)
+    var rank = initial.next
+    var falsified = initial.falsified
+    var verified = initial.verified
+    var segment = -1
+    var combination: Array[Int] = null
+    while (rank < shard.to) {
+      if (combination == null || rank == offsets(segment + 1)) {
+        segment = offsets.lastIndexWhere(offset => offset <= rank)
+        combination = combinators(segment).unrank(rank - offsets(segment))
+      } else combinators(segment).advance(combination)
+      interpolation.moveTo(combination.toIndexedSeq)
+      val recovered = CertificationJob.digest(bigIntToBytes(interpolation.valueAtZero)) == secretDigest
+      val authorized = combination.length == threshold
+      assert(recovered == authorized, String.format("Certification failed at rank %d.", rank: java.lang.Long))
+      if (authorized) verified = verified + 1
+      else falsified = falsified + 1
+      rank = rank + 1
+      if ((rank - initial.next) % interval == 0) {
+        CertificationJob.Progress(id, shard, rank, falsified, verified).save(checkpoint)
+        if (Thread.interrupted()) throw new InterruptedException(String.format("Interrupted at rank %d.", rank: java.lang.Long))
+      }
+    }
+    val progress = CertificationJob.Progress(id, shard, rank, falsified, verified)
+    progress.save(checkpoint)
+    progress
+  }
+
+  /**
+   * Merges the progress of all shards. The shards must have been completed and must cover the whole combination space without gaps or overlaps.
+   *
+   * @param progresses the final progress of every shard
+   * @return the number of falsified and verified combinations
+   */
+  def merge(progresses: Iterable[CertificationJob.Progress]): (Long, Long) = {
+    require(progresses.forall(progress => progress.jobId == id), "Inconsistent job ids.")
+    require(progresses.forall(progress => progress.completed), "Incomplete shards.")
+    val ranges = progresses.map(progress => progress.shard).toIndexedSeq.sortBy(shard => shard.from)
+    val covered = ranges.foldLeft(0L)((next, shard) => {
+      require(shard.from == next, "The shards must cover the combination space without gaps or overlaps.")
+      shard.to
+    })
+    require(covered == size, "The shards must cover the combination space without gaps or overlaps.")
+    (progresses.map(progress => progress.falsified).sum, progresses.map(progress => progress.verified).sum)
+  }
+
+  /**
+   * Merges the checkpoints of all shards, see [[merge]].
+   *
+   * @param checkpoints the checkpoint files
+   * @return the number of falsified and verified combinations
+   */
+  def mergeCheckpoints(checkpoints: Iterable[Path]): (Long, Long) = merge(checkpoints.map(checkpoint => CertificationJob.Progress.read(checkpoint)))
+
+  /**
+   * Translates the job into JSON.
+   *
+   * @return the JSON object
+   */
+  def toJson: JsonObject = {
+    val arrayBuilder = Json.createArrayBuilder()
+    sharePoints.foreach(point => {
+      arrayBuilder.add(Json.createObjectBuilder()
+        .add("SharePoint", Json.createObjectBuilder()
+          .add("x", point._1.bigInteger)
+          .add("y", point._2.bigInteger)))
+    })
+    Json.createObjectBuilder()
+      .add("JobId", id)
+      .add("Prime", prime.bigInteger)
+      .add("Threshold", threshold)
+      .add("SecretDigest", Base64.getEncoder.encodeToString(secretDigest.toArray))
+      .add("SharePoints", arrayBuilder.build())
+      .build()
+  }
+
+  /**
+   * Saves the job, e.g. to hand it over to worker JVMs.
+   *
+   * @param path the job file
+   */
+  def save(path: Path): Unit = new JsonPrettyPrinter().print(path, toJson)
+
+  override def toString: String = String.format("CertificationJob[id=%s, shares=%d, threshold=%d, size=%d]", id, sharePoints.length: Integer, threshold: Integer, size: java.lang.Long)
+}
+
+/**
+ * Provides the shards, the progress records and the JSON conversions of certification jobs.
+ */
+object CertificationJob {
+
+  /**
+   * A rank range [from, to) within the combination space.
+   *
+   * @param from the inclusive lower bound
+   * @param to the exclusive upper bound
+   */
+  case class Shard(from: Long, to: Long)
+
+  /**
+   * Records the progress of a shard.
+   *
+   * @param jobId the job id
+   * @param shard the shard
+   * @param next the next rank to be checked
+   * @param falsified the number of falsified combinations so far
+   * @param verified the number of verified combinations so far
+   */
+  case class Progress(jobId: String, shard: Shard, next: Long, falsified: Long, verified: Long) {
+
+    /** indicates if all combinations of the shard have been checked */
+    def completed: Boolean = next == shard.to
+
+    def toJson: JsonObject = Json.createObjectBuilder()
+      .add("JobId", jobId)
+      .add("From", shard.from)
+      .add("To", shard.to)
+      .add("Next", next)
+      .add("Falsified", falsified)
+      .add("Verified", verified)
+      .build()
+
+    /**
+     * Saves the progress. The file is replaced atomically, hence an interruption leaves either the previous or the current progress behind.
+     *
+     * @param path the checkpoint file
+     */
+    def save(path: Path): Unit = {
+      val temporary = path.resolveSibling(path.getFileName.toString + ".tmp")
+      new JsonPrettyPrinter().print(temporary, toJson)
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+    }
+  }
+
+  /**
+   * Reads the progress records.
+   */
+  object Progress {
+
+    /**
+     * Reads a checkpoint file.
+     *
+     * @param path the checkpoint file
+     * @return the recorded progress
+     */
+    def read(path: Path): Progress = {
+      val jsonObject = readJson(path)
+      Progress(
+        jsonObject.getString("JobId"),
+        Shard(jsonObject.getJsonNumber("From").longValue(), jsonObject.getJsonNumber("To").longValue()),
+        jsonObject.getJsonNumber("Next").longValue(),
+        jsonObject.getJsonNumber("Falsified").longValue(),
+        jsonObject.getJsonNumber("Verified").longValue()
+      )
+    }
+  }
+
+  /**
+   * Creates the certification job of the given scheme.
+   *
+   * @param secretSharing the secret sharing scheme
+   * @return the certification job
+   */
+  def apply(secretSharing: SecretSharing): CertificationJob =
+    new CertificationJob(secretSharing.id, secretSharing.prime, secretSharing.threshold, secretSharing.sharePoints, digest(secretSharing.secretBytes))
+
+  /**
+   * Reads a job file.
+   *
+   * @param path the job file
+   * @return the certification job
+   */
+  def read(path: Path): CertificationJob = {
+    val jsonObject = readJson(path)
+    val sharePoints = CollectionConverters.IteratorHasAsScala(jsonObject.getJsonArray("SharePoints").iterator()).asScala
+      .map(jsonValue => jsonValue.asJsonObject().getJsonObject("SharePoint"))
+      .map(sp => (BigInt(sp.getJsonNumber("x").bigIntegerValue()), BigInt(sp.getJsonNumber("y").bigIntegerValue())))
+      .toIndexedSeq
+    new CertificationJob(
+      jsonObject.getString("JobId"),
+      BigInt(jsonObject.getJsonNumber("Prime").bigIntegerValue()),
+      jsonObject.getInt("Threshold"),
+      sharePoints,
+      Base64.getDecoder.decode(jsonObject.getString("SecretDigest")).toIndexedSeq
+    )
+  }
+
+  /**
+   * Computes the SHA-256 digest of the given bytes.
+   *
+   * @param bytes the bytes
+   * @return the digest
+   */
+  def digest(bytes: IndexedSeq[Byte]): IndexedSeq[Byte] = MessageDigest.getInstance("SHA-256").digest(bytes.toArray).toIndexedSeq
+
+  private def readJson(path: Path): JsonObject = {
+    val fileIn = new FileInputStream(path.toFile)
+    try {
+      Json.createReader(fileIn).readObject()
+    } finally {
+      fileIn.close()
+    }
+  }
+}
\ No newline at end of file
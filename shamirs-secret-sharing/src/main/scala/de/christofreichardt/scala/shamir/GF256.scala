@@ -0,0 +1,181 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+/**
+ * The arithmetic of the finite field GF(2&#94;8) as used by AES, that is the polynomials over GF(2) reduced modulo x&#94;8 + x&#94;4 + x&#94;3 + x + 1.
+ * Addition and subtraction are given by the exclusive or. The multiplication is carried out by means of logarithm and exponential
+ * tables with respect to the generator 3. Field elements are represented by `Int` values within [0, 255] whereas bulk operations work on
+ * byte arrays, that is byte-wise with a precomputed multiplication row for the constant factor. Since the inner loops consist of table lookups
+ * and exclusive ors only, they scale linearly with the number of bytes.
+ */
+object GF256 {
+
+  /** the number of field elements */
+  val ORDER = 256
+
+  /** the reduction polynomial x&#94;8 + x&#94;4 + x&#94;3 + x + 1 */
+  val POLYNOMIAL = 0x11B
+
+  /** exp(i) = 3&#94;i, doubled in length so that the sum of two logarithms needn't be reduced */
+  private val EXP: Array[Int] = {
+    val exp = Array.ofDim[Int](2 * (ORDER - 1))
+    Range(0, ORDER - 1).foldLeft(1)((value, i) => {
+      exp(i) = value
+      exp(i + ORDER - 1) = value
+      val doubled = if ((value & 0x80) != 0) (value << 1) ^ POLYNOMIAL else value << 1
+      doubled ^ value
+    })
+    exp
+  }
+
+  /** log(exp(i)) = i, log(0) is undefined */
+  private val LOG: Array[Int] = {
+    val log = Array.ofDim[Int](ORDER)
+    Range(0, ORDER - 1).foreach(i => log(EXP(i)) = i)
+    log
+  }
+
+  def multiply(a: Int, b: Int): Int = {
+    if (a == 0 || b == 0) 0
+    else EXP(LOG(a) + LOG(b))
+  }
+
+  /**
+   * Computes the multiplicative inverse.
+   *
+   * @param a a non-zero field element
+   * @return the inverse of a
+   */
+  def inverse(a: Int): Int = {
+    if (a == 0) throw new ArithmeticException("Zero isn't invertible.")
+    EXP(ORDER - 1 - LOG(a))
+  }
+
+  /**
+   * Tabulates the products of the given constant with all field elements.
+   *
+   * @param c the constant factor
+   * @return the products c*0, c*1, ..., c*255
+   */
+  def multiplicationRow(c: Int): Array[Byte] = Array.tabulate(ORDER)(v => multiply(c, v).toByte)
+
+  /**
+   * Evaluates byte-wise the polynomials given by the coefficient arrays at position x by applying the Horner scheme. That is the j-th byte of
+   * the result is the value of the polynomial with the coefficients coefficients(0)(j), ..., coefficients(m)(j).
+   *
+   * @param coefficients the coefficient arrays, starting with the highest degree
+   * @param x the position
+   * @param length the number of bytes to be evaluated
+   * @param result receives the values
+   */
+  def evaluateInto(coefficients: IndexedSeq[Array[Byte]], x: Int, length: Int, result: Array[Byte]): Unit = hornerInto(coefficients, multiplicationRow(x), length, result)
+
+  /**
+   * Evaluates byte-wise the polynomials given by the coefficient arrays at the position denoted by its multiplication row, see [[evaluateInto]].
+   * Useful if the same position is evaluated over and over again.
+   *
+   * @param coefficients the coefficient arrays, starting with the highest degree
+   * @param row the multiplication row of the position, see [[multiplicationRow]]
+   * @param length the number of bytes to be evaluated
+   * @param result receives the values
+   */
+  def hornerInto(coefficients: IndexedSeq[Array[Byte]], row: Array[Byte], length: Int, result: Array[Byte]): Unit = {
+    java.util.Arrays.fill(result, 0, length, 0.toByte)
+    coefficients.foreach(c => {
+      var j = 0
+      while (j < length) {
+        result(j) = (row(result(j) & 0xFF) ^ c(j)).toByte
+        j = j + 1
+      }
+    })
+  }
+
+  /**
+   * Evaluates byte-wise the polynomials given by the coefficient arrays at position x, see [[evaluateInto]].
+   *
+   * @param coefficients the coefficient arrays of equal length, starting with the highest degree
+   * @param x the position
+   * @return the values
+   */
+  def evaluate(coefficients: IndexedSeq[Array[Byte]], x: Int): Array[Byte] = {
+    val length = coefficients.head.length
+    val result = Array.ofDim[Byte](length)
+    evaluateInto(coefficients, x, length, result)
+    result
+  }
+
+  /**
+   * Computes the Lagrange basis weights at x == 0.
+   *
+   * <pre>
+   *             x(0)* ... *x(i-1)*x(i+1)* ... *x(n)
+   * w(i) := -----------------------------------------------------------
+   *         (x(0) - x(i))* ... *(x(i-1) - x(i))*(x(i+1) - x(i))* ... *(x(n) - x(i))
+   * </pre>
+   *
+   * @param xs pairwise different and non-zero x-coordinates
+   * @return the weights w(0), ..., w(n)
+   */
+  def weightsAtZero(xs: IndexedSeq[Int]): IndexedSeq[Int] = {
+    xs.indices.map(i => {
+      val (numerator, denominator) = xs.indices.foldLeft((1, 1))((accumulated, j) => {
+        if (i == j) accumulated
+        else (multiply(accumulated._1, xs(j)), multiply(accumulated._2, xs(j) ^ xs(i)))
+      })
+      multiply(numerator, inverse(denominator))
+    })
+  }
+
+  /**
+   * Computes byte-wise the linear combination of the given byte arrays, that is w(0)*ys(0) + ... + w(n)*ys(n).
+   *
+   * @param weights the weights
+   * @param ys the byte arrays
+   * @param length the number of bytes to be combined
+   * @param result receives the linear combination
+   */
+  def combineInto(weights: IndexedSeq[Int], ys: IndexedSeq[Array[Byte]], length: Int, result: Array[Byte]): Unit = {
+    require(weights.length == ys.length, "Dimension mismatch.")
+    combineRowsInto(weights.map(weight => multiplicationRow(weight)), ys, length, result)
+  }
+
+  /**
+   * Computes byte-wise the linear combination of the given byte arrays whereby the weights are given by their multiplication rows, see [[combineInto]].
+   *
+   * @param rows the multiplication rows of the weights, see [[multiplicationRow]]
+   * @param ys the byte arrays
+   * @param length the number of bytes to be combined
+   * @param result receives the linear combination
+   */
+  def combineRowsInto(rows: IndexedSeq[Array[Byte]], ys: IndexedSeq[Array[Byte]], length: Int, result: Array[Byte]): Unit = {
+    require(rows.length == ys.length, "Dimension mismatch.")
+    java.util.Arrays.fill(result, 0, length, 0.toByte)
+    rows.indices.foreach(i => {
+      val row = rows(i)
+      val y = ys(i)
+      var j = 0
+      while (j < length) {
+        result(j) = (result(j) ^ row(y(j) & 0xFF)).toByte
+        j = j + 1
+      }
+    })
+  }
+}
\ No newline at end of file
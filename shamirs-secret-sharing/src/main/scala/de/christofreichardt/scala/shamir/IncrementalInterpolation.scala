@@ -0,0 +1,179 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import scala.collection.mutable
+
+/**
+ * Maintains the Lagrange basis weights at x == 0 for a varying selection of supporting points. A selection is given by indices into the
+ * supporting points. Building the weights from scratch needs O(k²) field operations for a selection of k points, see
+ * [[LagrangeInterpolation.weightsIn]]. Adding or removing a single point or swapping one point for another needs only O(k) field operations
+ * and a single inversion:
+ *
+ * <pre>
+ *   w(i) = x(0)/(x(0) - x(i))* ... *x(k)/(x(k) - x(i)), excluding j == i
+ *
+ *   adding a:      w(i) := w(i) * x(a)/(x(a) - x(i))
+ *   removing r:    w(i) := w(i) * (x(r) - x(i))/x(r)
+ * </pre>
+ *
+ * Hence enumerating combinations in revolving-door order, see [[de.christofreichardt.scala.combinations.RevolvingDoorCombinator]], allows to
+ * check each combination in O(k). Instances are mutable and must not be shared between threads.
+ *
+ * @constructor Creates an incremental interpolation over the given supporting points, initially nothing is selected.
+ *
+ * @param supportingPoints all supporting points with pairwise different and non-zero x-coordinates
+ * @param prime            a prime number
+ * @param field            the arithmetic of GF(prime)
+ */
+class IncrementalInterpolation(val supportingPoints: IndexedSeq[(BigInt, BigInt)], val prime: BigInt, val field: PrimeField) {
+
+  /**
+   * Creates a new IncrementalInterpolation backed by the default field implementation.
+   *
+   * @param supportingPoints all supporting points with pairwise different and non-zero x-coordinates
+   * @param prime            a prime number
+   */
+  def this(supportingPoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt) = this(supportingPoints, prime, PrimeField(prime))
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(field.prime == prime, "The field must be defined by the same prime.")
+
+  private val xs: IndexedSeq[BigInt] = supportingPoints.map(p => p._1.mod(prime))
+
+  require(pairWiseDifferent(xs), "Supporting points must be pairwise different and unambiguous.")
+  require(xs.forall(x => x != BigInt(0)), "The x-coordinates must be non-zero.")
+
+  private val xElements: IndexedSeq[field.Element] = xs.map(x => field.element(x))
+  private val yElements: IndexedSeq[field.Element] = supportingPoints.map(p => field.element(p._2))
+  private val weights: mutable.LinkedHashMap[Int, field.Element] = mutable.LinkedHashMap.empty
+
+  /**
+   * Gives the currently selected indices.
+   *
+   * @return the selection
+   */
+  def selection: Set[Int] = weights.keySet.toSet
+
+  /**
+   * Selects the given indices by computing the weights from scratch.
+   *
+   * @param indices pairwise different indices into the supporting points
+   */
+  def reset(indices: IndexedSeq[Int]): Unit = {
+    require(pairWiseDifferent(indices), "Indices must be pairwise different.")
+    val ws = LagrangeInterpolation.weightsIn(field)(indices.map(index => xElements(index)), field.zero)
+    weights.clear()
+    indices.indices.foreach(i => weights.put(indices(i), ws(i)))
+  }
+
+  /**
+   * Adds the given index to the selection.
+   *
+   * @param in an unselected index
+   */
+  def add(in: Int): Unit = {
+    require(!weights.contains(in), String.format("%d has already been selected.", in))
+    val xa = xElements(in)
+    val selected = weights.keys.toIndexedSeq
+    val differences = selected.map(index => field.subtract(xa, xElements(index)))
+    val numerator = selected.foldLeft(field.one)((product, index) => field.multiply(product, xElements(index)))
+    val denominator = selected.foldLeft(field.one)((product, index) => field.multiply(product, field.subtract(xElements(index), xa)))
+    val inverses = field.batchInverse(differences :+ denominator)
+    selected.indices.foreach(i => weights.update(selected(i), field.multiply(field.multiply(weights(selected(i)), xa), inverses(i))))
+    weights.put(in, field.multiply(numerator, inverses.last))
+  }
+
+  /**
+   * Removes the given index from the selection.
+   *
+   * @param out a selected index
+   */
+  def remove(out: Int): Unit = {
+    require(weights.contains(out), String.format("%d hasn't been selected.", out))
+    weights.remove(out)
+    val xr = xElements(out)
+    val inverse = field.inverse(xr)
+    weights.keys.toIndexedSeq.foreach(index => {
+      val factor = field.multiply(field.subtract(xr, xElements(index)), inverse)
+      weights.update(index, field.multiply(weights(index), factor))
+    })
+  }
+
+  /**
+   * Replaces a selected index by an unselected one. This is cheaper than removing and adding since both updates are combined.
+   *
+   * <pre>
+   *   w(i) := w(i) * x(a)*(x(r) - x(i))/((x(a) - x(i))*x(r))
+   * </pre>
+   *
+   * @param out a selected index
+   * @param in an unselected index
+   */
+  def swap(out: Int, in: Int): Unit = {
+    require(weights.contains(out), String.format("%d hasn't been selected.", out))
+    require(!weights.contains(in), String.format("%d has already been selected.", in))
+    weights.remove(out)
+    val xr = xElements(out)
+    val xa = xElements(in)
+    val selected = weights.keys.toIndexedSeq
+    val differences = selected.map(index => field.subtract(xa, xElements(index)))
+    val numerator = selected.foldLeft(field.one)((product, index) => field.multiply(product, xElements(index)))
+    val denominator = selected.foldLeft(field.one)((product, index) => field.multiply(product, field.subtract(xElements(index), xa)))
+    val inverses = field.batchInverse((xr +: differences) :+ denominator)
+    selected.indices.foreach(i => {
+      val factor = field.multiply(field.multiply(xa, field.subtract(xr, xElements(selected(i)))), field.multiply(inverses(i + 1), inverses(0)))
+      weights.update(selected(i), field.multiply(weights(selected(i)), factor))
+    })
+    weights.put(in, field.multiply(numerator, inverses.last))
+  }
+
+  /**
+   * Moves the selection to the given indices. Departing indices are swapped for arriving indices, superfluous indices are removed or added one
+   * by one. The weights will be computed from scratch if the selections differ too much.
+   *
+   * @param indices pairwise different indices into the supporting points
+   */
+  def moveTo(indices: IndexedSeq[Int]): Unit = {
+    val target = indices.toSet
+    val departing = weights.keys.filterNot(index => target.contains(index)).toIndexedSeq
+    val arriving = indices.filterNot(index => weights.contains(index))
+    if (weights.isEmpty || 2 * (departing.length + arriving.length) > indices.length + weights.size) reset(indices)
+    else {
+      val swaps = math.min(departing.length, arriving.length)
+      Range(0, swaps).foreach(i => swap(departing(i), arriving(i)))
+      departing.drop(swaps).foreach(index => remove(index))
+      arriving.drop(swaps).foreach(index => add(index))
+    }
+  }
+
+  /**
+   * Computes the value of the polynomial interpolating the selected supporting points at x == 0.
+   *
+   * @return the value at x == 0
+   */
+  def valueAtZero: BigInt = {
+    val selected = weights.keys.toIndexedSeq
+    field.toBigInt(field.dotProduct(selected.map(index => weights(index)), selected.map(index => yElements(index))))
+  }
+
+  override def toString: String = String.format("IncrementalInterpolation[supportingPoints=%d, selection=(%s), prime=%s]",
+    supportingPoints.length: Integer, weights.keys.mkString(","), prime)
+}
\ No newline at end of file
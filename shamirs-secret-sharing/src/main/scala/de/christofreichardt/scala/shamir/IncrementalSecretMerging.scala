@@ -0,0 +1,203 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.diagnosis.Tracing
+import jakarta.json.JsonObject
+import scala.collection.mutable
+
+/**
+ * Recovers the secret while the shares arrive one at a time, e.g. during an unlock ceremony. The interpolating polynomial is kept in Newton's form, see
+ * [[NewtonInterpolation]]. Each share below the threshold adds a single Newton coefficient, which requires O(k) field operations and one inversion, and updates
+ * the value at x == 0 in O(1). Once the threshold has been reached the secret is available immediately, further shares are checked against the interpolating
+ * polynomial in O(k) field operations and recorded if they don't lie on it. All operations are thread-safe.
+ *
+ * @constructor Creates an empty incremental merger for the given prime and threshold.
+ *
+ * @param prime the prime modulus
+ * @param threshold the number of shares required for the recovery of the secret
+ * @param field the arithmetic of GF(prime)
+ */
+class IncrementalSecretMerging(val prime: BigInt, val threshold: Int, val field: PrimeField) extends Tracing {
+
+  /**
+   * Creates an empty incremental merger backed by the default field implementation.
+   *
+   * @param prime the prime modulus
+   * @param threshold the number of shares required for the recovery of the secret
+   */
+  def this(prime: BigInt, threshold: Int) = this(prime, threshold, PrimeField(prime))
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(field.prime == prime, "The field must be defined by the same prime.")
+  require(threshold >= 1, "Invalid threshold.")
+
+  private val xs = mutable.ArrayBuffer.empty[field.Element]
+  private val cs = mutable.ArrayBuffer.empty[field.Element]
+  private val knownXs = mutable.HashSet.empty[BigInt]
+  private val accepted = mutable.ArrayBuffer.empty[(BigInt, BigInt)]
+  private val rejected = mutable.ArrayBuffer.empty[(BigInt, BigInt)]
+  private var basisAtZero: field.Element = field.one
+  private var valueAtZero: field.Element = field.zero
+  private var id: Option[String] = Option.empty
+
+  /**
+   * Adds a single share. Below the threshold the share extends the Newton form, otherwise it will be checked against the interpolating polynomial. A share
+   * repeating a known x-coordinate is consistent only if it repeats a consistent share as well. A resubmitted inconsistent share will be recorded only once.
+   *
+   * @param sharePoint the share
+   * @return true if the share has been used for the interpolation or lies on the interpolating polynomial
+   */
+  def addSharePoint(sharePoint: (BigInt, BigInt)): Boolean = synchronized {
+    withTracer("Boolean", this, "addSharePoint(sharePoint: (BigInt, BigInt))") {
+      val tracer = getCurrentTracer()
+      val x = sharePoint._1.mod(prime)
+      val xElement = field.element(x)
+      val yElement = field.element(sharePoint._2)
+      val consistent = {
+        if (knownXs.contains(x)) {
+          accepted.exists(point => point._1.mod(prime) == x && point._2.mod(prime) == sharePoint._2.mod(prime))
+        } else if (!isComplete) {
+          val (subtrahend, denominator) = xs.indices
+            .foldLeft((field.zero, field.one))((accumulated, i) => {
+              val (sum, product) = accumulated
+              (field.add(sum, field.multiply(cs(i), product)), field.multiply(product, field.subtract(xElement, xs(i))))
+            })
+          val c = field.multiply(field.subtract(yElement, subtrahend), field.inverse(denominator))
+          xs += xElement
+          cs += c
+          valueAtZero = field.add(valueAtZero, field.multiply(c, basisAtZero))
+          basisAtZero = field.multiply(basisAtZero, field.subtract(field.zero, xElement))
+          true
+        } else {
+          evaluateAt(xElement) == field.toBigInt(yElement)
+        }
+      }
+      if (!knownXs.contains(x) || !consistent) {
+        if (consistent) accepted += sharePoint
+        else if (!rejected.contains(sharePoint)) rejected += sharePoint
+      }
+      knownXs.add(x)
+      tracer.out().printfIndentln("x = %s, consistent = %b, count = %d", x, consistent: java.lang.Boolean, count: Integer)
+      consistent
+    }
+  }
+
+  /**
+   * Adds all shares of the given slice. The first slice fixes the partition id, all other slices must belong to the same partition and share the prime and the
+   * threshold.
+   *
+   * @param slice the JSON slice
+   * @return the shares of the slice which don't lie on the interpolating polynomial
+   */
+  def addSlice(slice: JsonObject): IndexedSeq[(BigInt, BigInt)] = synchronized {
+    require(!ByteWiseSecretMerging.isByteWise(slice), "Byte-wise slices aren't supported.")
+    require(slice.containsKey("PartitionId"), "No PartitionId found.")
+    val partitionId = slice.getString("PartitionId")
+    require(id.forall(known => known == partitionId), "Inconsistent PartitionIds.")
+    require(BigInt(slice.getJsonNumber("Prime").bigIntegerValue()) == prime && slice.getInt("Threshold") == threshold, "Inconsistent slices.")
+    id = Option(partitionId)
+    BatchSecretMerging.sharePoints(slice.getJsonArray("SharePoints")).filterNot(sharePoint => addSharePoint(sharePoint))
+  }
+
+  /**
+   * Indicates that the threshold has been reached.
+   *
+   * @return true if the secret can be recovered
+   */
+  def isComplete: Boolean = synchronized {
+    cs.length >= threshold
+  }
+
+  /**
+   * Gives the number of shares used for the interpolation.
+   *
+   * @return the number of interpolated shares
+   */
+  def count: Int = synchronized {
+    cs.length
+  }
+
+  /**
+   * Gives the recovered secret.
+   *
+   * @return the recovered secret
+   * @throws IllegalStateException if the threshold hasn't been reached yet
+   */
+  def secret: RecoveredSecret = synchronized {
+    if (!isComplete) throw new IllegalStateException(String.format("%d of %d sharepoints received.", cs.length: Integer, threshold: Integer))
+    RecoveredSecret(bigIntToBytes(field.toBigInt(valueAtZero)))
+  }
+
+  /**
+   * Gives the shares which have been used for the interpolation or have been confirmed by the interpolating polynomial.
+   *
+   * @return the consistent shares in the order of their arrival
+   */
+  def consistentSharePoints: IndexedSeq[(BigInt, BigInt)] = synchronized {
+    accepted.toIndexedSeq
+  }
+
+  /**
+   * Gives the shares which don't lie on the interpolating polynomial.
+   *
+   * @return the inconsistent shares in the order of their arrival
+   */
+  def inconsistentSharePoints: IndexedSeq[(BigInt, BigInt)] = synchronized {
+    rejected.toIndexedSeq
+  }
+
+  /**
+   * Gives the partition id of the added slices, if any.
+   *
+   * @return the partition id
+   */
+  def partitionId: Option[String] = synchronized {
+    id
+  }
+
+  /**
+   * Evaluates the Newton form by the Horner scheme.
+   */
+  private def evaluateAt(x: field.Element): BigInt = {
+    val y = Range(cs.length - 2, -1, -1).foldLeft(cs.last)((y, i) => field.add(field.multiply(y, field.subtract(x, xs(i))), cs(i)))
+    field.toBigInt(y)
+  }
+
+  override def toString: String = String.format("IncrementalSecretMerging[threshold=%d, count=%d, inconsistent=%d, prime=%s]", threshold: Integer, count: Integer, inconsistentSharePoints.length: Integer, prime)
+}
+
+/**
+ * This object provides some operations to create `IncrementalSecretMerging` instances.
+ */
+object IncrementalSecretMerging {
+
+  /**
+   * Creates an incremental merger with the prime and threshold of the given slice and adds its shares.
+   *
+   * @param slice the first JSON slice
+   * @return the incremental merger
+   */
+  def apply(slice: JsonObject): IncrementalSecretMerging = {
+    val incrementalSecretMerging = new IncrementalSecretMerging(BigInt(slice.getJsonNumber("Prime").bigIntegerValue()), slice.getInt("Threshold"))
+    incrementalSecretMerging.addSlice(slice)
+    incrementalSecretMerging
+  }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.diagnosis.{AbstractTracer, TracerFactory}
+import de.christofreichardt.scala.diagnosis.Tracing
+
+/**
+ * Implements Lagrange's interpolation method. In contrast to [[NewtonInterpolation]] no polynomial will be computed at all. Instead the
+ * value of the interpolating polynomial at a particular position is given by the dot product of the Lagrange basis weights with
+ * the y-values of the supporting points. This is all we need to recover the secret, that is the value at x == 0.
+ *
+ * @constructor Creates a new LagrangeInterpolation by applying some supporting points, a prime number and the field implementation.
+ *
+ * @param supportingPoints some supporting points with pairwise different x-coordinates
+ * @param prime            a prime number
+ * @param field            the arithmetic of GF(prime)
+ */
+class LagrangeInterpolation(val supportingPoints: IndexedSeq[(BigInt, BigInt)], val prime: BigInt, val field: PrimeField) extends Tracing {
+
+  /**
+   * Creates a new LagrangeInterpolation backed by the default field implementation.
+   *
+   * @param supportingPoints some supporting points with pairwise different x-coordinates
+   * @param prime            a prime number
+   */
+  def this(supportingPoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt) = this(supportingPoints, prime, PrimeField(prime))
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(field.prime == prime, "The field must be defined by the same prime.")
+
+  /** the x-coordinates of the supporting points (mod prime) */
+  val xs: IndexedSeq[BigInt] = supportingPoints.map(p => p._1.mod(prime))
+  /** the y-coordinates of the supporting points (mod prime) */
+  val ys: IndexedSeq[BigInt] = supportingPoints.map(p => p._2.mod(prime))
+
+  require(pairWiseDifferent(xs), "Supporting points must be pairwise different and unambiguous.")
+
+  private val xElements: IndexedSeq[field.Element] = xs.map(x => field.element(x))
+  private val yElements: IndexedSeq[field.Element] = ys.map(y => field.element(y))
+  private lazy val weightElementsAtZero: IndexedSeq[field.Element] = LagrangeInterpolation.weightsIn(field)(xElements, field.zero)
+
+  /** the Lagrange basis weights at x == 0 */
+  lazy val weightsAtZero: IndexedSeq[BigInt] = weightElementsAtZero.map(w => field.toBigInt(w))
+
+  /** the value of the interpolating polynomial at x == 0 */
+  lazy val valueAtZero: BigInt = field.toBigInt(field.dotProduct(weightElementsAtZero, yElements))
+
+  /**
+   * Computes y = P(x) whereby P denotes the interpolating polynomial.
+   *
+   * @param x the x value
+   * @return the y value
+   */
+  def evaluateAt(x: BigInt): BigInt = {
+    withTracer("BigInt", this, "evaluateAt(x: BigInt)") {
+      val tracer = getCurrentTracer()
+      tracer.out().printfIndentln("x = %s", x)
+      field.toBigInt(field.dotProduct(LagrangeInterpolation.weightsIn(field)(xElements, field.element(x)), yElements))
+    }
+  }
+
+  override def toString: String = String.format("LagrangeInterpolation[supportingPoints=(%s), prime=%s]", supportingPoints.mkString(","), prime)
+
+  override def getCurrentTracer(): AbstractTracer = TracerFactory.getInstance().getDefaultTracer
+}
+
+/**
+ * Provides the building blocks of Lagrange's interpolation method. The weights depend solely on the x-coordinates and can therefore be
+ * reused for any number of y-vectors sharing the same x-coordinates.
+ */
+object LagrangeInterpolation {
+
+  /**
+   * Computes the Lagrange basis weights at the given position.
+   *
+   * <pre>
+   *          (x - x(0))* ... *(x - x(i-1))*(x - x(i+1))* ... *(x - x(n))
+   * w(i) := ------------------------------------------------------------------------ (mod prime)
+   *         (x(i) - x(0))* ... *(x(i) - x(i-1))*(x(i) - x(i+1))* ... *(x(i) - x(n))
+   * </pre>
+   *
+   * The numerators are computed by prefix and suffix products. All denominators are inverted at once, see [[batchInverse]].
+   *
+   * @param xs pairwise different x-coordinates (mod prime)
+   * @param x the position
+   * @param prime the prime modulus
+   * @return the weights w(0), ..., w(n)
+   */
+  def weights(xs: IndexedSeq[BigInt], x: BigInt, prime: BigInt): IndexedSeq[BigInt] = {
+    val field = new BigIntField(prime)
+    weightsIn(field)(xs, x)
+  }
+
+  /**
+   * Computes the Lagrange basis weights at the given position within the given field, see [[weights]].
+   *
+   * @param field the field implementation
+   * @param xs pairwise different x-coordinates
+   * @param x the position
+   * @return the weights w(0), ..., w(n)
+   */
+  def weightsIn(field: PrimeField)(xs: IndexedSeq[field.Element], x: field.Element): IndexedSeq[field.Element] = {
+    val differences = xs.map(xj => field.subtract(x, xj))
+    val prefixes = differences.scanLeft(field.one)((product, difference) => field.multiply(product, difference))
+    val suffixes = differences.scanRight(field.one)((difference, product) => field.multiply(product, difference))
+    val denominators = xs.indices.map(i => {
+      xs.indices.foldLeft(field.one)((product, j) => {
+        if (i == j) product
+        else field.multiply(product, field.subtract(xs(i), xs(j)))
+      })
+    })
+    val inverses = field.batchInverse(denominators)
+    xs.indices.map(i => field.multiply(field.multiply(prefixes(i), suffixes(i + 1)), inverses(i)))
+  }
+
+  /**
+   * Inverts all given values (mod prime) with a single modular inversion by applying Montgomery's trick, see [[PrimeField.batchInverse]].
+   *
+   * @param values some non-zero values (mod prime)
+   * @param prime the prime modulus
+   * @return the inverses of the values
+   */
+  def batchInverse(values: IndexedSeq[BigInt], prime: BigInt): IndexedSeq[BigInt] = {
+    val field = new BigIntField(prime)
+    field.batchInverse(values)
+  }
+
+  /**
+   * Computes the dot product of the given weights and y-values (mod prime).
+   *
+   * @param weights the weights
+   * @param ys the y-values
+   * @param prime the prime modulus
+   * @return the dot product
+   */
+  def dotProduct(weights: IndexedSeq[BigInt], ys: IndexedSeq[BigInt], prime: BigInt): BigInt = {
+    require(weights.length == ys.length, "Dimension mismatch.")
+    weights.indices.foldLeft(BigInt(0))((sum, i) => sum + weights(i) * ys(i)).mod(prime)
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+/**
+ * A field implementation for odd primes representing the elements in Montgomery form, that is a is represented by a*R (mod prime) whereby
+ * R := 2&#94;(32*s) and s denotes the number of 32-bit limbs needed to hold the prime. The limbs are stored least significant first within
+ * `Array[Long]` instances of fixed length s, hence the products of two limbs and the carries fit into a `Long` without overflow.
+ * The multiplication is carried out by the CIOS (Coarsely Integrated Operand Scanning) method which interleaves the multiplication and the
+ * Montgomery reduction. The conversions into and out of the Montgomery form are delegated to `BigInt` and should therefore be confined
+ * to the beginning and the end of a computation.
+ *
+ * The element arrays are treated as immutable by the methods of the [[PrimeField]] trait. The `...Into` variants write their result into a
+ * given array instead and don't allocate anything at all. The result array may be identical to one of the operands.
+ *
+ * @constructor Creates the field for the given prime modulus and precomputes the Montgomery constants.
+ *
+ * @param prime an odd prime modulus
+ */
+class MontgomeryField(val prime: BigInt) extends PrimeField {
+
+  require(prime.testBit(0) && prime > 2, "Montgomery's reduction requires an odd modulus.")
+
+  type Element = Array[Long]
+
+  private val MASK = 0xFFFFFFFFL
+
+  /** the number of 32-bit limbs */
+  val s: Int = (prime.bitLength + 31) / 32
+  private val modulus: Array[Long] = limbs(prime)
+  private val R: BigInt = BigInt(1) << (32 * s)
+  private val rInverse: BigInt = R.modInverse(prime)
+  private val rSquared: BigInt = (R * R).mod(prime)
+  private val rModPrime: Array[Long] = limbs(R.mod(prime))
+  /** -prime&#94;(-1) (mod 2&#94;32) */
+  private val n0: Long = {
+    val base = BigInt(1) << 32
+    (base - prime.modInverse(base)).mod(base).toLong
+  }
+  private val scratch: ThreadLocal[Array[Long]] = ThreadLocal.withInitial(() => new Array[Long](s + 2))
+
+  private def limbs(value: BigInt): Array[Long] = Array.tabulate(s)(i => (value >> (32 * i)).toLong & MASK)
+
+  private def value(element: Array[Long]): BigInt = element.foldRight(BigInt(0))((limb, v) => (v << 32) | BigInt(limb))
+
+  override def element(value: BigInt): Array[Long] = limbs((value.mod(prime) * R).mod(prime))
+
+  override def toBigInt(element: Array[Long]): BigInt = (value(element) * rInverse).mod(prime)
+
+  override def zero: Array[Long] = new Array[Long](s)
+
+  override def one: Array[Long] = rModPrime.clone()
+
+  override def add(a: Array[Long], b: Array[Long]): Array[Long] = {
+    val result = new Array[Long](s)
+    addInto(a, b, result)
+    result
+  }
+
+  override def subtract(a: Array[Long], b: Array[Long]): Array[Long] = {
+    val result = new Array[Long](s)
+    subtractInto(a, b, result)
+    result
+  }
+
+  override def multiply(a: Array[Long], b: Array[Long]): Array[Long] = {
+    val result = new Array[Long](s)
+    multiplyInto(a, b, result)
+    result
+  }
+
+  /**
+   * Computes (a*R)&#94;(-1)*R&#94;2 = a&#94;(-1)*R (mod prime). Since the inversion is rare compared to the other operations, it is delegated to `BigInt`.
+   */
+  override def inverse(a: Array[Long]): Array[Long] = limbs((value(a).modInverse(prime) * rSquared).mod(prime))
+
+  private def isGreaterOrEqualModulus(t: Array[Long]): Boolean = {
+    var i = s - 1
+    while (i >= 0 && t(i) == modulus(i)) i = i - 1
+    i < 0 || t(i) > modulus(i)
+  }
+
+  private def subtractModulus(t: Array[Long], result: Array[Long]): Unit = {
+    var borrow = 0L
+    var i = 0
+    while (i < s) {
+      val difference = t(i) - modulus(i) - borrow
+      result(i) = difference & MASK
+      borrow = difference >>> 63
+      i = i + 1
+    }
+  }
+
+  /**
+   * Computes a + b (mod prime).
+   *
+   * @param a the first summand
+   * @param b the second summand
+   * @param result receives the sum
+   */
+  def addInto(a: Array[Long], b: Array[Long], result: Array[Long]): Unit = {
+    var carry = 0L
+    var i = 0
+    while (i < s) {
+      val sum = a(i) + b(i) + carry
+      result(i) = sum & MASK
+      carry = sum >>> 32
+      i = i + 1
+    }
+    if (carry != 0 || isGreaterOrEqualModulus(result)) subtractModulus(result, result)
+  }
+
+  /**
+   * Computes a - b (mod prime).
+   *
+   * @param a the minuend
+   * @param b the subtrahend
+   * @param result receives the difference
+   */
+  def subtractInto(a: Array[Long], b: Array[Long], result: Array[Long]): Unit = {
+    var borrow = 0L
+    var i = 0
+    while (i < s) {
+      val difference = a(i) - b(i) - borrow
+      result(i) = difference & MASK
+      borrow = difference >>> 63
+      i = i + 1
+    }
+    if (borrow != 0) {
+      var carry = 0L
+      i = 0
+      while (i < s) {
+        val sum = result(i) + modulus(i) + carry
+        result(i) = sum & MASK
+        carry = sum >>> 32
+        i = i + 1
+      }
+    }
+  }
+
+  /**
+   * Computes the Montgomery product a*b*R&#94;(-1) (mod prime) by the CIOS method. The intermediate result requires s + 2 limbs and is kept
+   * within a thread local scratch array.
+   *
+   * @param a the first factor
+   * @param b the second factor
+   * @param result receives the product
+   */
+  def multiplyInto(a: Array[Long], b: Array[Long], result: Array[Long]): Unit = {
+    val t = scratch.get()
+    java.util.Arrays.fill(t, 0L)
+    var i = 0
+    while (i < s) {
+      val bi = b(i)
+      var carry = 0L
+      var j = 0
+      while (j < s) {
+        val sum = t(j) + a(j) * bi + carry
+        t(j) = sum & MASK
+        carry = sum >>> 32
+        j = j + 1
+      }
+      var sum = t(s) + carry
+      t(s) = sum & MASK
+      t(s + 1) = sum >>> 32
+      val m = (t(0) * n0) & MASK
+      sum = t(0) + m * modulus(0)
+      carry = sum >>> 32
+      j = 1
+      while (j < s) {
+        sum = t(j) + m * modulus(j) + carry
+        t(j - 1) = sum & MASK
+        carry = sum >>> 32
+        j = j + 1
+      }
+      sum = t(s) + carry
+      t(s - 1) = sum & MASK
+      t(s) = t(s + 1) + (sum >>> 32)
+      i = i + 1
+    }
+    if (t(s) != 0 || isGreaterOrEqualModulus(t)) subtractModulus(t, result)
+    else System.arraycopy(t, 0, result, 0, s)
+  }
+
+  /**
+   * Accumulates the products within a single array.
+   */
+  override def dotProduct(as: IndexedSeq[Array[Long]], bs: IndexedSeq[Array[Long]]): Array[Long] = {
+    require(as.length == bs.length, "Dimension mismatch.")
+    val sum = new Array[Long](s)
+    val product = new Array[Long](s)
+    as.indices.foreach(i => {
+      multiplyInto(as(i), bs(i), product)
+      addInto(sum, product, sum)
+    })
+    sum
+  }
+
+  /**
+   * Evaluates the polynomial in place within a single array.
+   */
+  override def horner(coefficients: Seq[Array[Long]], x: Array[Long]): Array[Long] = {
+    val t = new Array[Long](s)
+    coefficients.foreach(c => {
+      multiplyInto(t, x, t)
+      addInto(t, c, t)
+    })
+    t
+  }
+
+  override def toString: String = String.format("MontgomeryField[prime=%s, limbs=%d]", prime, s: Integer)
+}
\ No newline at end of file
@@ -27,14 +27,24 @@ import scala.annotation.tailrec
 /**
  * Implements Newtons interpolation algorithm. All calculations will be carried out by finite field algebra.
  *
- * @constructor Creates a new NewtonInterpolation by applying some supporting points and a prime number.
+ * @constructor Creates a new NewtonInterpolation by applying some supporting points, a prime number and the field implementation.
  *
  * @param supportingPoints some pairwise different supporting points
  * @param prime            a prime number
+ * @param field            the arithmetic of GF(prime) used for the computation of the coefficients
  */
-class NewtonInterpolation(val supportingPoints: IndexedSeq[(BigInt, BigInt)], val prime: BigInt) extends Tracing {
+class NewtonInterpolation(val supportingPoints: IndexedSeq[(BigInt, BigInt)], val prime: BigInt, val field: PrimeField) extends Tracing {
 
-  require(prime.isProbablePrime(CERTAINTY), String.format("%s isn't prime.", prime))
+  /**
+   * Creates a new NewtonInterpolation backed by the default field implementation.
+   *
+   * @param supportingPoints some pairwise different supporting points
+   * @param prime            a prime number
+   */
+  def this(supportingPoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt) = this(supportingPoints, prime, PrimeField(prime))
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(field.prime == prime, "The field must be defined by the same prime.")
   require(pairWiseDifferent(supportingPoints), "Supporting points must be pairwise different and unambiguous.")
 
   /** n supporting points give a polynom of degree n - 1 */
@@ -91,7 +101,7 @@ class NewtonInterpolation(val supportingPoints: IndexedSeq[(BigInt, BigInt)], va
   /**
    * Supporting points :=  (x(0), y(0)), ..., (x(n), y(n)).
    *
-   * Computes the newton coefficients c(n)...c(0) by dynamic programming. 
+   * Computes the newton coefficients c(0)...c(n) iteratively.
    *
    * <pre>
    *         y(n) - c(0) - c(1)*(x(n) - x(0)) - ... - c(n-1)*((x(n) - x(0))*...*(x(n) - x(n-2))
@@ -105,50 +115,37 @@ class NewtonInterpolation(val supportingPoints: IndexedSeq[(BigInt, BigInt)], va
    * c(0) := y(0) (mod prime)
    * </pre>
    *
-   * Following applies: (n + 1) == number of supporting points. This gives a polynom of degree n 
-   * with (n + 1) Newton coefficients.
+   * Following applies: (n + 1) == number of supporting points. This gives a polynom of degree n
+   * with (n + 1) Newton coefficients. The subtrahend and the denominator of c(i) are accumulated within a single pass over
+   * the previously computed coefficients whereby the running product (x(i) - x(0))* ... *(x(i) - x(j)) is extended by one factor
+   * at each step. Hence the computation requires O(n&#94;2) multiplications and n modular inversions. All of them are carried out within the
+   * given field.
    *
    * @return the calculated newton coefficients
    */
   def computeCoefficients(): IndexedSeq[BigInt] = {
-    val tracer = getCurrentTracer()
-    val memoCoefficients: scala.collection.mutable.Map[Int, BigInt] = scala.collection.mutable.Map.empty[Int, BigInt]
-
-    def computeCoefficient(index: Int): BigInt = {
-      withTracer("BigInt", this, "computeCoefficient(index: Int)") {
-        tracer.out().printfIndentln("index = %d, memoCoefficients = %s", index: Integer, memoCoefficients)
-
-        if (memoCoefficients.contains(index)) memoCoefficients(index)
-        else if (index == 0) {
-          memoCoefficients += (index -> supportingPoints(0)._2)
-          memoCoefficients(index)
-        } else {
-          val subtrahend =
-            Range.inclusive(0, index - 1)
-              .map(i => {
-                val c = computeCoefficient(i)
-                val product =
-                  if (i == 0) BigInt(1)
-                  else multiplyDifferences(index, i - 1, supportingPoints.map(p => p._1))
-                c * product
-              })
-              .foldLeft(BigInt(0))((t0, t1) => (t0 + t1).mod(prime))
-          val y = supportingPoints(index)._2
-          val numerator = (y - subtrahend).mod(prime)
-          tracer.out().printfIndentln("numerator = %s", numerator)
-          tracer.out().printfIndentln("index = %d", index: Integer)
-          val denominator = multiplyDifferences(index, index - 1, supportingPoints.map(p => p._1))
-          tracer.out().printfIndentln("denominator = %s", denominator)
-          val c = (numerator * denominator.modInverse(prime)).mod(prime)
-          memoCoefficients += (index -> c)
-          memoCoefficients(index)
-        }
-      }
-    }
-
     withTracer("IndexedSeq[BigInt]", this, "computeCoefficients()") {
-      computeCoefficient(supportingPoints.length - 1)
-      Range(0, supportingPoints.length).map(i => memoCoefficients(i))
+      val tracer = getCurrentTracer()
+      val xs = supportingPoints.map(p => field.element(p._1))
+      val ys = supportingPoints.map(p => field.element(p._2))
+      val coefficients = Array.ofDim[BigInt](supportingPoints.length)
+      val cs = scala.collection.mutable.ArrayBuffer.empty[field.Element]
+      if (coefficients.nonEmpty) {
+        coefficients(0) = supportingPoints(0)._2
+        cs += ys(0)
+      }
+      Range(1, coefficients.length).foreach(index => {
+        val (subtrahend, denominator) = Range(0, index)
+          .foldLeft((field.zero, field.one))((accumulated, i) => {
+            val (sum, product) = accumulated
+            (field.add(sum, field.multiply(cs(i), product)), field.multiply(product, field.subtract(xs(index), xs(i))))
+          })
+        val numerator = field.subtract(ys(index), subtrahend)
+        tracer.out().printfIndentln("index = %d, numerator = %s, denominator = %s", index: Integer, field.toBigInt(numerator), field.toBigInt(denominator))
+        cs += field.multiply(numerator, field.inverse(denominator))
+        coefficients(index) = field.toBigInt(cs(index))
+      })
+      coefficients.toIndexedSeq
     }
   }
 
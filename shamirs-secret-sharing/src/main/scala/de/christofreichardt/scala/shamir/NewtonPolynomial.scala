@@ -37,7 +37,7 @@ class NewtonPolynomial(
   val coefficients: IndexedSeq[BigInt],
   val prime:        BigInt) extends Tracing {
 
-  require(prime.isProbablePrime(CERTAINTY))
+  require(VerifiedPrimes.isPrime(prime))
 
   /** alias for `degree` */
   val n: Int = degree
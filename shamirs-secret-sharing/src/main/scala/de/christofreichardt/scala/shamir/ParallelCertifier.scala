@@ -0,0 +1,141 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import java.util.concurrent.atomic.{AtomicBoolean, LongAdder}
+import java.util.concurrent.{Callable, ExecutionException, Executor, ExecutorCompletionService, ForkJoinPool}
+
+/**
+ * Checks a predicate for a potentially huge number of items, e.g. share combinations, concurrently. The items are consumed by the calling thread and
+ * submitted in batches to the given executor. At most `maxPendingBatches` batches are in flight at any time, hence lazily produced items needn't be
+ * materialized at once. The first item violating the predicate cancels all remaining work, that is pending batches stop at their next item and no further
+ * batches will be submitted.
+ *
+ * @constructor Creates a certifier backed by the given executor.
+ *
+ * @param executor executes the batches
+ * @param batchSize the number of items per batch
+ * @param maxPendingBatches the maximal number of batches in flight
+ */
+class ParallelCertifier(val executor: Executor, val batchSize: Int, val maxPendingBatches: Int) {
+
+  /**
+   * Creates a certifier backed by the given executor with the default batch size and twice as many pending batches as there are processors.
+   *
+   * @param executor executes the batches
+   */
+  def this(executor: Executor) = this(executor, ParallelCertifier.DEFAULT_BATCH_SIZE, 2 * Runtime.getRuntime.availableProcessors())
+
+  require(batchSize > 0, "Invalid batch size.")
+  require(maxPendingBatches > 0, "At least one batch must be allowed to be in flight.")
+
+  /**
+   * Checks the predicate for all items until the first violation.
+   *
+   * @param items the items to be checked
+   * @param predicate the predicate, must be thread-safe
+   * @tparam T the type of the items
+   * @return true if all items satisfy the predicate together with the number of actually checked items
+   */
+  def forall[T](items: Iterator[T])(predicate: T => Boolean): (Boolean, Long) = forallStateful(items)(() => predicate)
+
+  /**
+   * Checks the predicates for all items until the first violation. Every batch gets its own predicate produced by the given factory. The items of
+   * a batch are checked in the order of the underlying iterator, hence the predicate may keep some state about the previously checked item, e.g.
+   * an [[IncrementalInterpolation]], without any synchronization.
+   *
+   * @param items the items to be checked
+   * @param predicateFactory produces a predicate for each batch, must be thread-safe
+   * @tparam T the type of the items
+   * @return true if all items satisfy the predicate together with the number of actually checked items
+   */
+  def forallStateful[T](items: Iterator[T])(predicateFactory: () => T => Boolean): (Boolean, Long) = {
+    val violated = new AtomicBoolean(false)
+    val counter = new LongAdder
+    val completionService = new ExecutorCompletionService[Unit](executor)
+    var pending = 0
+
+    def awaitBatch(): Unit = {
+      pending = pending - 1
+      try {
+        completionService.take().get()
+      } catch {
+        case ex: ExecutionException =>
+          violated.set(true)
+          throw ex.getCause
+      }
+    }
+
+    try {
+      while (items.hasNext && !violated.get()) {
+        if (pending >= maxPendingBatches) awaitBatch()
+        val batch = Vector.newBuilder[T]
+        var size = 0
+        while (size < batchSize && items.hasNext) {
+          batch += items.next()
+          size = size + 1
+        }
+        val chunk = batch.result()
+        val task: Callable[Unit] = () => {
+          val predicate = predicateFactory()
+          val iterator = chunk.iterator
+          while (iterator.hasNext && !violated.get()) {
+            val satisfied = predicate(iterator.next())
+            counter.increment()
+            if (!satisfied) violated.set(true)
+          }
+        }
+        completionService.submit(task)
+        pending = pending + 1
+      }
+      while (pending > 0) awaitBatch()
+    } finally {
+      if (pending > 0) violated.set(true) // only on abrupt termination, stops the remaining batches
+      while (pending > 0) {
+        pending = pending - 1
+        try {
+          completionService.take().get()
+        } catch {
+          case _: ExecutionException =>
+        }
+      }
+    }
+
+    (!violated.get(), counter.sum())
+  }
+
+  override def toString: String = String.format("ParallelCertifier[executor=%s, batchSize=%d, maxPendingBatches=%d]", executor, batchSize: Integer, maxPendingBatches: Integer)
+}
+
+/**
+ * Provides the default certifier.
+ */
+object ParallelCertifier {
+
+  /** the default number of items per batch */
+  val DEFAULT_BATCH_SIZE = 64
+
+  /**
+   * Gives a certifier backed by the common fork-join pool.
+   *
+   * @return the default certifier
+   */
+  def apply(): ParallelCertifier = new ParallelCertifier(ForkJoinPool.commonPool())
+}
\ No newline at end of file
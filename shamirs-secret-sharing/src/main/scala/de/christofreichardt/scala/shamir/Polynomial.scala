@@ -30,13 +30,24 @@ import de.christofreichardt.diagnosis.TracerFactory
  *
  * @param coefficients the polynoms coefficients
  * @param prime the prime modulus
+ * @param field the arithmetic of GF(prime) used for the evaluation
  */
 class Polynomial(
   val coefficients: IndexedSeq[BigInt],
-  val prime:        BigInt)
+  val prime:        BigInt,
+  val field:        PrimeField)
   extends Tracing {
 
-  require(prime.isProbablePrime(CERTAINTY))
+  /**
+   * Creates a polynomial evaluated by the default field implementation.
+   *
+   * @param coefficients the polynoms coefficients
+   * @param prime the prime modulus
+   */
+  def this(coefficients: IndexedSeq[BigInt], prime: BigInt) = this(coefficients, prime, PrimeField(prime))
+
+  require(VerifiedPrimes.isPrime(prime))
+  require(field.prime == prime, "The field must be defined by the same prime.")
 
   /** the remaining coefficients while dropping leading zeros */
   val a: Seq[BigInt] = coefficients.dropWhile(c => c == BigInt(0))
@@ -45,8 +56,11 @@ class Polynomial(
   /** indicates the zero polynomial */
   val isZero: Boolean = degree == -1
 
+  private lazy val coefficientElements: Seq[field.Element] = a.map(c => field.element(c))
+
   /**
-   * Computes y = P(x).
+   * Computes y = P(x) by applying the Horner scheme within the given field, see [[PrimeField.horner]]. The coefficients are converted into
+   * field elements only once.
    *
    * @param x the x value
    * @return the y value
@@ -56,17 +70,24 @@ class Polynomial(
       val tracer = getCurrentTracer()
       tracer.out().printfIndentln("x = %s", x)
       if (isZero) BigInt(0)
-      else {
-        Range.inclusive(0, degree)
-          .map(i => {
-            tracer.out().printfIndentln("a(%d) = %s", degree - i: Integer, a(i))
-            (a(i) * x.modPow(degree - i, prime)).mod(prime)
-          })
-          .foldLeft(BigInt(0))((t0, t1) => (t0 + t1).mod(prime))
-      }
+      else field.toBigInt(field.horner(coefficientElements, field.element(x)))
     }
   }
 
+  /**
+   * Computes y = P(x) given the powers x&#94;0, x&#94;1, ..., x&#94;m (mod prime) with m >= degree. The products of the coefficients and the powers
+   * are summed up and reduced only once. This is useful if several polynomials have to be evaluated at the same position.
+   *
+   * @param powers the powers of x
+   * @return the y value
+   */
+  def evaluateWith(powers: IndexedSeq[BigInt]): BigInt = {
+    require(powers.length > degree, "Too few powers.")
+    Range.inclusive(0, degree)
+      .foldLeft(BigInt(0))((sum, i) => sum + a(i) * powers(degree - i))
+      .mod(prime)
+  }
+
   /**
    * Returns a string representation of the Polynomial.
    *
@@ -75,4 +96,38 @@ class Polynomial(
   override def toString = String.format("Polynomial[a=(%s), degree=%d, isZero=%b, prime=%s]", a.mkString(","), degree: Integer, isZero: java.lang.Boolean, prime)
 
   override def getCurrentTracer(): AbstractTracer = TracerFactory.getInstance().getDefaultTracer
+}
+
+/**
+ * Provides the evaluation of several polynomials at once.
+ */
+object Polynomial {
+
+  /**
+   * Computes the powers x&#94;0, x&#94;1, ..., x&#94;m (mod prime).
+   *
+   * @param x the x value
+   * @param m the highest power
+   * @param prime the prime modulus
+   * @return the powers of x
+   */
+  def powers(x: BigInt, m: Int, prime: BigInt): IndexedSeq[BigInt] = IndexedSeq.iterate(BigInt(1), m + 1)(power => (power * x).mod(prime))
+
+  /**
+   * Evaluates all given polynomials at all given positions. The powers of each x value are computed only once and shared by all polynomials.
+   *
+   * @param polynomials some polynomials sharing the same prime modulus
+   * @param xs the positions
+   * @return for each polynomial the y values at the given positions
+   */
+  def evaluateAll(polynomials: IndexedSeq[Polynomial], xs: IndexedSeq[BigInt]): IndexedSeq[IndexedSeq[BigInt]] = {
+    if (polynomials.isEmpty) IndexedSeq.empty
+    else {
+      val prime = polynomials.head.prime
+      require(polynomials.forall(polynomial => polynomial.prime == prime), "The polynomials must share the same prime modulus.")
+      val maxDegree = polynomials.map(polynomial => polynomial.degree).max
+      val powerTable = xs.map(x => powers(x.mod(prime), maxDegree, prime))
+      polynomials.map(polynomial => powerTable.map(ps => polynomial.evaluateWith(ps)))
+    }
+  }
 }
\ No newline at end of file
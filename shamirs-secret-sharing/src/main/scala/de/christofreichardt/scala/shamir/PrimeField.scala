@@ -0,0 +1,142 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+/**
+ * Abstracts the arithmetic within the prime field GF(prime). The algorithms of this package are written against this trait and
+ * convert their input into field elements upfront and their results back into `BigInt` numbers at the end. Hence the
+ * representation of the field elements is up to the implementation, see [[BigIntField]] and [[MontgomeryField]].
+ */
+trait PrimeField {
+
+  /** the representation of the field elements */
+  type Element
+
+  /** the prime modulus */
+  val prime: BigInt
+
+  /**
+   * Converts the given number into a field element.
+   *
+   * @param value the number, will be reduced (mod prime)
+   * @return the field element
+   */
+  def element(value: BigInt): Element
+
+  /**
+   * Converts the given field element back into a number.
+   *
+   * @param element the field element
+   * @return the number within [0, prime)
+   */
+  def toBigInt(element: Element): BigInt
+
+  /** the additive identity */
+  def zero: Element
+
+  /** the multiplicative identity */
+  def one: Element
+
+  def add(a: Element, b: Element): Element
+
+  def subtract(a: Element, b: Element): Element
+
+  def multiply(a: Element, b: Element): Element
+
+  /**
+   * Computes the multiplicative inverse of the given element.
+   *
+   * @param a a non-zero field element
+   * @return the inverse of a
+   * @throws ArithmeticException if a is zero
+   */
+  def inverse(a: Element): Element
+
+  /**
+   * Inverts all given elements with a single inversion by applying Montgomery's trick.
+   *
+   * <pre>
+   *   p(i) := v(0)* ... *v(i)
+   *   1/v(i) = p(i-1) * 1/p(i)
+   *   1/p(i-1) = v(i) * 1/p(i)
+   * </pre>
+   *
+   * @param values some non-zero field elements
+   * @return the inverses of the elements
+   */
+  def batchInverse(values: IndexedSeq[Element]): IndexedSeq[Element] = {
+    if (values.isEmpty) IndexedSeq.empty
+    else {
+      val prefixes = values.scanLeft(one)((product, value) => multiply(product, value))
+      val (_, inverses) = values.indices.reverse.foldLeft((inverse(prefixes.last), List.empty[Element]))((accumulated, i) => {
+        val (inverse, computed) = accumulated
+        (multiply(inverse, values(i)), multiply(inverse, prefixes(i)) :: computed)
+      })
+      inverses.toIndexedSeq
+    }
+  }
+
+  /**
+   * Computes the dot product of the given vectors.
+   *
+   * @param as the first vector
+   * @param bs the second vector
+   * @return the dot product
+   */
+  def dotProduct(as: IndexedSeq[Element], bs: IndexedSeq[Element]): Element = {
+    require(as.length == bs.length, "Dimension mismatch.")
+    as.indices.foldLeft(zero)((sum, i) => add(sum, multiply(as(i), bs(i))))
+  }
+
+  /**
+   * Evaluates the polynomial given by its coefficients (highest degree first) at position x by applying the Horner scheme.
+   *
+   * @param coefficients the coefficients, starting with the highest degree
+   * @param x the position
+   * @return the value of the polynomial at x
+   */
+  def horner(coefficients: Seq[Element], x: Element): Element = coefficients.foldLeft(zero)((t, c) => add(multiply(t, x), c))
+}
+
+/**
+ * Provides the field implementations.
+ */
+object PrimeField {
+
+  /**
+   * Gives the default field implementation backed by `BigInt` numbers.
+   *
+   * @param prime the prime modulus
+   * @return the [[BigIntField]]
+   */
+  def apply(prime: BigInt): PrimeField = new BigIntField(prime)
+
+  /**
+   * Gives a [[MontgomeryField]] for odd primes. Falls back to the [[BigIntField]] for the prime 2 since Montgomery's reduction requires an
+   * odd modulus.
+   *
+   * @param prime the prime modulus
+   * @return a field implementation suitable for bulk computations
+   */
+  def montgomery(prime: BigInt): PrimeField = {
+    if (prime.testBit(0)) new MontgomeryField(prime)
+    else new BigIntField(prime)
+  }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+/**
+ * A recovered secret regardless of the underlying sharing scheme, see [[SecretMerging]] and [[ByteWiseSecretMerging]].
+ */
+trait RecoveredSecret {
+
+  /** the actual (recovered) secret bytes */
+  def secretBytes: IndexedSeq[Byte]
+
+  /** converts the recovered bytes into a Java array */
+  def secretBytesAsArray: Array[Byte] = this.secretBytes.toArray
+
+  /**
+   * Computes a character sequence from the recovered secret bytes by applying UTF-8 encoding.
+   *
+   * @return the decoded password
+   */
+  def password: Array[Char] = {
+    val byteBuffer = ByteBuffer.wrap(this.secretBytes.toArray)
+    val charBuffer = StandardCharsets.UTF_8.newDecoder().decode(byteBuffer)
+    val chars = Array.ofDim[Char](charBuffer.limit())
+    charBuffer.get(chars)
+    if (!charBuffer.isReadOnly) {
+      charBuffer.clear()
+      val fillingChars = Array.ofDim[Char](charBuffer.limit())
+      java.util.Arrays.fill(fillingChars, '\u0000')
+      charBuffer.put(fillingChars)
+    }
+    chars
+  }
+}
+
+/**
+ * This object provides the plain recovered secret.
+ */
+object RecoveredSecret {
+
+  /**
+   * Wraps the given bytes.
+   *
+   * @param bytes the recovered secret bytes
+   * @return the recovered secret
+   */
+  def apply(bytes: IndexedSeq[Byte]): RecoveredSecret = new RecoveredSecret {
+    override val secretBytes: IndexedSeq[Byte] = bytes
+  }
+}
\ No newline at end of file
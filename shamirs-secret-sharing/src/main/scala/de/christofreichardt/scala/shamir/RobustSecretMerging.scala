@@ -0,0 +1,182 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.diagnosis.Tracing
+
+/**
+ * Recovers the original secret bytes from all given shares even if some of them are inconsistent, e.g. corrupted or tampered. Given n shares and the
+ * threshold k, up to (n - k)/2 inconsistent shares will be corrected by the Berlekamp-Welch algorithm: an error locator polynomial E of degree e and a
+ * polynomial Q of degree below k + e satisfying Q(x(i)) = y(i)*E(x(i)) for all shares are determined by solving a linear system, whereupon the
+ * interpolating polynomial is given by P = Q/E. This requires O(n&#94;3) field operations instead of trying combinations of shares. The shares not lying
+ * on P are reported.
+ *
+ * @constructor Creates a immutable `RobustSecretMerging` instance.
+ *
+ * @param sharePoints the shares
+ * @param prime the prime modulus
+ * @param threshold the number of shares required for the recovery of the secret
+ */
+class RobustSecretMerging(
+                           val sharePoints: IndexedSeq[(BigInt, BigInt)],
+                           val prime: BigInt,
+                           val threshold: Int) extends Tracing with RecoveredSecret {
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(threshold >= 1, "Invalid threshold.")
+  require(sharePoints.length >= threshold, "Too few sharepoints.")
+
+  /** the x-coordinates of the shares (mod prime) */
+  val xs: IndexedSeq[BigInt] = sharePoints.map(point => point._1.mod(prime))
+  /** the y-coordinates of the shares (mod prime) */
+  val ys: IndexedSeq[BigInt] = sharePoints.map(point => point._2.mod(prime))
+
+  require(pairWiseDifferent(xs), "Supporting points must be pairwise different and unambiguous.")
+
+  /** the maximal number of inconsistent shares which can be corrected */
+  val maxErrors: Int = (sharePoints.length - threshold) / 2
+  /** the coefficients of the interpolating polynomial, lowest degree first */
+  val coefficients: IndexedSeq[BigInt] = decode
+  /** the indices of the shares which don't lie on the interpolating polynomial */
+  val inconsistentIndices: IndexedSeq[Int] = xs.indices.filter(i => evaluateAt(xs(i)) != ys(i))
+
+  if (inconsistentIndices.length > maxErrors) throw new IllegalArgumentException("Too many inconsistent sharepoints.")
+
+  /** the (recovered) encoded secret */
+  val s: BigInt = coefficients.head
+  /** the actual (recovered) secret bytes */
+  val secretBytes: IndexedSeq[Byte] = bigIntToBytes(s)
+
+  /**
+   * Gives the shares which don't lie on the interpolating polynomial.
+   *
+   * @return the inconsistent shares
+   */
+  def inconsistentSharePoints: IndexedSeq[(BigInt, BigInt)] = inconsistentIndices.map(i => sharePoints(i))
+
+  /** converts the indices of the inconsistent shares into a Java array */
+  def inconsistentIndicesAsArray: Array[Int] = inconsistentIndices.toArray
+
+  /**
+   * Indicates that all shares lie on the interpolating polynomial.
+   *
+   * @return true if no inconsistent share has been detected
+   */
+  def isConsistent: Boolean = inconsistentIndices.isEmpty
+
+  /**
+   * Computes y = P(x) by applying the Horner scheme whereby P denotes the interpolating polynomial.
+   *
+   * @param x the x value
+   * @return the y value
+   */
+  def evaluateAt(x: BigInt): BigInt = coefficients.foldRight(BigInt(0))((coefficient, y) => (y * x + coefficient).mod(prime))
+
+  /**
+   * Sets up and solves the linear system of the Berlekamp-Welch algorithm and divides Q by the monic error locator E.
+   *
+   * @return the coefficients of P = Q/E, lowest degree first
+   */
+  private def decode: IndexedSeq[BigInt] = {
+    withTracer("IndexedSeq[BigInt]", this, "decode") {
+      val tracer = getCurrentTracer()
+      val e = maxErrors
+      val k = threshold
+      tracer.out().printfIndentln("n = %d, k = %d, e = %d", sharePoints.length: Integer, k: Integer, e: Integer)
+      val rows = xs.indices.map(i => {
+        val powers = Polynomial.powers(xs(i), k + e, prime)
+        val row = Array.ofDim[BigInt](k + 2*e + 1)
+        Range(0, k + e).foreach(j => row(j) = powers(j))
+        Range(0, e).foreach(j => row(k + e + j) = (-ys(i) * powers(j)).mod(prime))
+        row(k + 2*e) = (ys(i) * powers(e)).mod(prime)
+        row
+      }).toArray
+      val solution = RobustSecretMerging.solve(rows, k + 2*e, prime).getOrElse(throw new IllegalArgumentException("Too many inconsistent sharepoints."))
+      val q = solution.take(k + e)
+      val locator = solution.slice(k + e, k + 2*e) :+ BigInt(1)
+      val quotient = Array.fill(k)(BigInt(0))
+      Range.inclusive(k + e - 1, e, -1).foreach(d => {
+        val c = q(d)
+        quotient(d - e) = c
+        Range.inclusive(0, e).foreach(j => q(d - e + j) = (q(d - e + j) - c * locator(j)).mod(prime))
+      })
+      if (q.take(e).exists(r => r != BigInt(0))) throw new IllegalArgumentException("Too many inconsistent sharepoints.")
+      quotient.toIndexedSeq
+    }
+  }
+
+  override def toString: String = String.format("RobustSecretMerging[sharePoints=%d, threshold=%d, inconsistentIndices=(%s)]", sharePoints.length: Integer, threshold: Integer, inconsistentIndices.mkString(","))
+}
+
+/**
+ * Provides the linear algebra of the Berlekamp-Welch algorithm.
+ */
+object RobustSecretMerging {
+
+  /**
+   * Directly calls the `RobustSecretMerging` primary constructor.
+   *
+   * @param sharePoints the shares
+   * @param prime the prime modulus
+   * @param threshold the number of shares required for the recovery of the secret
+   * @return the immutable `RobustSecretMerging` instance
+   */
+  def apply(sharePoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt, threshold: Int): RobustSecretMerging = new RobustSecretMerging(sharePoints, prime, threshold)
+
+  /**
+   * Solves the given linear system (mod prime) by Gauss-Jordan elimination. Free variables are set to zero, hence an underdetermined but consistent
+   * system yields one of its solutions.
+   *
+   * @param rows the augmented matrix, will be modified
+   * @param unknowns the number of unknowns, the last column of each row holds the right-hand side
+   * @param prime the prime modulus
+   * @return a solution or nothing if the system is inconsistent
+   */
+  def solve(rows: Array[Array[BigInt]], unknowns: Int, prime: BigInt): Option[Array[BigInt]] = {
+    val pivots = scala.collection.mutable.ArrayBuffer.empty[Int]
+    var r = 0
+    var column = 0
+    while (column < unknowns && r < rows.length) {
+      val pivot = Range(r, rows.length).find(i => rows(i)(column) != BigInt(0))
+      if (pivot.isDefined) {
+        val swapped = rows(r)
+        rows(r) = rows(pivot.get)
+        rows(pivot.get) = swapped
+        val inverse = rows(r)(column).modInverse(prime)
+        rows(r) = rows(r).map(value => (value * inverse).mod(prime))
+        rows.indices.foreach(i => {
+          val factor = rows(i)(column)
+          if (i != r && factor != BigInt(0)) {
+            rows(i) = rows(i).indices.map(j => (rows(i)(j) - factor * rows(r)(j)).mod(prime)).toArray
+          }
+        })
+        pivots.addOne(column)
+        r = r + 1
+      }
+      column = column + 1
+    }
+    if (Range(r, rows.length).exists(i => rows(i)(unknowns) != BigInt(0))) Option.empty
+    else {
+      val solution = Array.fill(unknowns)(BigInt(0))
+      pivots.indices.foreach(i => solution(pivots(i)) = rows(i)(unknowns))
+      Option(solution)
+    }
+  }
+}
\ No newline at end of file
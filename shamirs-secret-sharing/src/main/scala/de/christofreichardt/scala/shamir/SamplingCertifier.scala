@@ -0,0 +1,132 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.combinations.LazyBinomialCombinator
+import java.security.SecureRandom
+import java.time.Duration
+import scala.util.Random
+
+/**
+ * Draws uniformly distributed share combinations for a statistical certification if the exhaustive certification would be too expensive. The
+ * combinations are obtained by unranking uniformly distributed ranks, see [[LazyBinomialCombinator.unrank]], hence there is no need to enumerate
+ * the combination space. If m samples of a population have passed, the fraction of failing combinations within this population is below
+ *
+ * <pre>
+ *   errorBound(m) = 1 - (1 - confidence)&#94;(1/m)
+ * </pre>
+ *
+ * with the given confidence. Sampling stops as soon as the bound falls below `maxErrorBound` or the time budget has been exhausted.
+ *
+ * @constructor Creates a sampler with the given target confidence, error bound and time budget.
+ *
+ * @param confidence the desired confidence, e.g. 0.99
+ * @param maxErrorBound the desired upper bound of the fraction of failing combinations, e.g. 0.01
+ * @param timeBudget the maximal sampling time per population
+ * @param random the random source
+ */
+class SamplingCertifier(val confidence: Double, val maxErrorBound: Double, val timeBudget: Duration, random: SecureRandom) {
+
+  /**
+   * Creates a sampler with the default settings.
+   *
+   * @param random the random source
+   */
+  def this(random: SecureRandom) = this(SamplingCertifier.DEFAULT_CONFIDENCE, SamplingCertifier.DEFAULT_ERROR_BOUND, SamplingCertifier.DEFAULT_TIME_BUDGET, random)
+
+  require(confidence > 0.0 && confidence < 1.0, "The confidence must be within (0, 1).")
+  require(maxErrorBound > 0.0 && maxErrorBound < 1.0, "The error bound must be within (0, 1).")
+  require(!timeBudget.isNegative, "The time budget must not be negative.")
+
+  private val randomSource = new Random(random)
+
+  /** the number of passed samples per population needed to reach the `maxErrorBound` with the given confidence */
+  val requiredSamples: Int = {
+    val samples = math.ceil(math.log(1.0 - confidence) / math.log(1.0 - maxErrorBound))
+    require(samples <= Int.MaxValue, "Too many samples required.")
+    samples.toInt
+  }
+
+  /**
+   * Computes the upper bound of the fraction of failing combinations given the number of passed samples.
+   *
+   * @param samples the number of passed samples
+   * @return the error bound with respect to the given confidence
+   */
+  def errorBound(samples: Long): Double = {
+    if (samples <= 0) 1.0
+    else 1.0 - math.pow(1.0 - confidence, 1.0 / samples)
+  }
+
+  /**
+   * Draws a uniformly distributed number within [0, bound) by rejection sampling.
+   *
+   * @param bound the exclusive upper bound
+   * @return the random number
+   */
+  def randomBelow(bound: BigInt): BigInt = {
+    require(bound > 0, "The bound must be positive.")
+    Iterator.continually(BigInt(bound.bitLength, randomSource)).find(candidate => candidate < bound).get
+  }
+
+  /**
+   * Produces uniformly distributed combinations out of all combinations of n integers with sizes within the given range. The iterator stops after
+   * [[requiredSamples]] combinations or if the time budget has been exhausted.
+   *
+   * @param n the size of the basic set
+   * @param sizes the admissible sizes of the combinations
+   * @return the random combinations
+   */
+  def combinations(n: Int, sizes: Range): Iterator[IndexedSeq[Int]] = {
+    val combinators = sizes.map(k => new LazyBinomialCombinator(n, k))
+    val total = combinators.map(combinator => combinator.size).sum
+    if (total == 0) Iterator.empty
+    else {
+      val deadline = System.nanoTime() + timeBudget.toNanos
+      Iterator.range(0, requiredSamples)
+        .takeWhile(_ => System.nanoTime() - deadline < 0)
+        .map(_ => {
+          var rank = randomBelow(total)
+          var i = 0
+          while (rank >= combinators(i).size) {
+            rank = rank - combinators(i).size
+            i = i + 1
+          }
+          combinators(i).unrank(rank)
+        })
+    }
+  }
+
+  override def toString: String = String.format("SamplingCertifier[confidence=%s, maxErrorBound=%s, timeBudget=%s, requiredSamples=%d]",
+    confidence: java.lang.Double, maxErrorBound: java.lang.Double, timeBudget, requiredSamples: Integer)
+}
+
+/**
+ * Provides the default settings.
+ */
+object SamplingCertifier {
+
+  /** the default confidence */
+  val DEFAULT_CONFIDENCE = 0.99
+  /** the default upper bound of the fraction of failing combinations */
+  val DEFAULT_ERROR_BOUND = 0.01
+  /** the default time budget per population */
+  val DEFAULT_TIME_BUDGET: Duration = Duration.ofSeconds(10)
+}
\ No newline at end of file
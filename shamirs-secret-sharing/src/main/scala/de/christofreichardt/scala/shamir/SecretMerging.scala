@@ -21,51 +21,56 @@ package de.christofreichardt.scala.shamir
 
 import de.christofreichardt.scala.diagnosis.Tracing
 import java.io.FileInputStream
-import java.nio.ByteBuffer
-import java.nio.charset.StandardCharsets
 import java.nio.file.Path
 import jakarta.json.{Json, JsonArray, JsonObject}
 import scala.jdk.CollectionConverters
 
 /**
- * Recovers the original secret bytes by combining the given shares.
+ * Recovers the original secret bytes by combining the given shares. The basis weights are taken from the given [[WeightCache]], if any, otherwise they
+ * will be computed by a [[LagrangeInterpolation]] within the given field.
  *
  * @constructor Creates a immutable `SecretMerging` instance.
  *
  * @param sharePoints the shares
  * @param prime the prime modulus
+ * @param field the arithmetic of GF(prime) used for the interpolation
+ * @param weightCache the optional cache of basis weights
  */
 class SecretMerging(
                      val sharePoints: IndexedSeq[(BigInt, BigInt)],
-                     val prime: BigInt) extends Tracing {
+                     val prime: BigInt,
+                     val field: PrimeField,
+                     val weightCache: Option[WeightCache]) extends Tracing with RecoveredSecret {
 
-  /** Newtons interpolation method */
-  val interpolation: NewtonInterpolation = new NewtonInterpolation(sharePoints, prime)
-  /** the (recovered) encoded secret */
-  val s: BigInt = interpolation.newtonPolynomial.evaluateAt(BigInt(0))
-  /** the actual (recovered) secret bytes */
-  val secretBytes: IndexedSeq[Byte] = bigIntToBytes(s)
-  /** converts the recovered bytes into a Java array */
-  def secretBytesAsArray: Array[Byte] = this.secretBytes.toArray
+  /**
+   * Creates a immutable `SecretMerging` instance backed by the given field implementation without caching the basis weights. Useful if many merges over
+   * different x-coordinates, e.g. during a certification, should share the field implementation.
+   *
+   * @param sharePoints the shares
+   * @param prime the prime modulus
+   * @param field the arithmetic of GF(prime) used for the interpolation
+   */
+  def this(sharePoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt, field: PrimeField) = this(sharePoints, prime, field, None)
 
   /**
-   * Computes a character sequence from the recovered secret bytes by applying UTF-8 encoding.
+   * Creates a immutable `SecretMerging` instance backed by the default field implementation and the shared [[WeightCache]].
    *
-   * @return the decoded password
+   * @param sharePoints the shares
+   * @param prime the prime modulus
    */
-  def password: Array[Char] = {
-    val byteBuffer = ByteBuffer.wrap(this.secretBytes.toArray)
-    val charBuffer = StandardCharsets.UTF_8.newDecoder().decode(byteBuffer)
-    val chars = Array.ofDim[Char](charBuffer.limit())
-    charBuffer.get(chars)
-    if (!charBuffer.isReadOnly) {
-      charBuffer.clear()
-      val fillingChars = Array.ofDim[Char](charBuffer.limit())
-      java.util.Arrays.fill(fillingChars, '\u0000')
-      charBuffer.put(fillingChars)
-    }
-    chars
+  def this(sharePoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt) = this(sharePoints, prime, PrimeField(prime), Some(WeightCache.shared))
+
+  /** Lagranges interpolation method, used for the recovery of the secret unless the weights are cached */
+  lazy val lagrangeInterpolation: LagrangeInterpolation = new LagrangeInterpolation(sharePoints, prime, field)
+  /** Newtons interpolation method, computed on demand only since the recovery of the secret doesn't need the whole polynomial */
+  lazy val interpolation: NewtonInterpolation = new NewtonInterpolation(sharePoints, prime, field)
+  /** the (recovered) encoded secret */
+  val s: BigInt = weightCache match {
+    case Some(cache) => cache.valueAtZero(sharePoints, prime)
+    case None => lagrangeInterpolation.valueAtZero
   }
+  /** the actual (recovered) secret bytes */
+  val secretBytes: IndexedSeq[Byte] = bigIntToBytes(s)
 }
 
 /**
@@ -83,6 +88,18 @@ object SecretMerging {
    */
   def apply(sharePoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt): SecretMerging = new SecretMerging(sharePoints, prime)
 
+  /**
+   * Directly calls the `SecretMerging` primary constructor. Useful if many merges share the same prime and the field implementation,
+   * e.g. a [[MontgomeryField]], should be reused.
+   *
+   * @param sharePoints the shares
+   * @param prime the prime modulus
+   * @param field the field implementation
+   *
+   * @return the immutable `SecretMerging` instance
+   */
+  def apply(sharePoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt, field: PrimeField): SecretMerging = new SecretMerging(sharePoints, prime, field)
+
   /**
    * Evaluates a JSON file containing shares needed to recover the secret.
    *
@@ -98,6 +115,7 @@ object SecretMerging {
         fileIn.close()
       }
     }
+    require(!ByteWiseSecretMerging.isByteWise(jsonObject), "Byte-wise slices must be recovered by SecretMerging.recover.")
     val prime = jsonObject.getJsonNumber("Prime").bigIntegerValue()
     val threshold = jsonObject.getInt("Threshold")
     val sharePointsAsJson = jsonObject.getJsonArray("SharePoints")
@@ -129,21 +147,132 @@ object SecretMerging {
     processSlices(jsonObjects)
   }
 
-  private def processSlices(jsonObjects: Seq[JsonObject]): SecretMerging = {
+  private def checkPartitionIds(jsonObjects: Seq[JsonObject]): Unit = {
     require(jsonObjects.nonEmpty, "Empty Sequence.")
     require(jsonObjects.forall(jsonObject => jsonObject.containsKey("PartitionId")), "No PartitionId found.")
     val ids = jsonObjects.map(jsonObject => jsonObject.getString("PartitionId"))
     require(ids.forall(id => id == ids.head), "Inconsistent PartitionIds.")
-    val (prime, threshold) = jsonObjects.view.map(jsonObject => (BigInt(jsonObject.getJsonNumber("Prime").bigIntegerValue()), jsonObject.getInt("Threshold"))).head
-    val ps = jsonObjects
+  }
+
+  private def processSlices(jsonObjects: Seq[JsonObject]): SecretMerging = {
+    checkPartitionIds(jsonObjects)
+    require(jsonObjects.forall(jsonObject => !ByteWiseSecretMerging.isByteWise(jsonObject)), "Byte-wise slices must be recovered by SecretMerging.recover.")
+    val threshold = jsonObjects.head.getInt("Threshold")
+    val prime = BigInt(jsonObjects.head.getJsonNumber("Prime").bigIntegerValue())
+    val ps = sharePoints(jsonObjects)
+    require(ps.length >= threshold, "Too few sharepoints.")
+    new SecretMerging(ps.take(threshold), prime)
+  }
+
+  private def recoverSlices(jsonObjects: Seq[JsonObject]): RecoveredSecret = {
+    checkPartitionIds(jsonObjects)
+    val byteWise = jsonObjects.map(jsonObject => ByteWiseSecretMerging.isByteWise(jsonObject))
+    require(byteWise.forall(marked => marked == byteWise.head), "Inconsistent schemes.")
+    if (byteWise.head) {
+      val threshold = jsonObjects.head.getInt("Threshold")
+      val ps = jsonObjects.flatMap(jsonObject => ByteWiseSecretMerging.sharePoints(jsonObject)).toIndexedSeq
+      require(ps.length >= threshold, "Too few sharepoints.")
+      ByteWiseSecretMerging(ps.take(threshold))
+    } else {
+      processSlices(jsonObjects)
+    }
+  }
+
+  private def sharePoints(jsonObjects: Seq[JsonObject]): IndexedSeq[(BigInt, BigInt)] = {
+    jsonObjects
       .map(jsonObject => jsonObject.getJsonArray("SharePoints"))
       .flatMap(jsonArray => CollectionConverters.IteratorHasAsScala(jsonArray.iterator()).asScala)
       .map(jsonValue => jsonValue.asJsonObject())
       .map(jsonObject => jsonObject.getJsonObject("SharePoint"))
       .map(sp => (BigInt(sp.getJsonNumber("x").bigIntegerValue()), BigInt(sp.getJsonNumber("y").bigIntegerValue())))
       .toIndexedSeq
-    require(ps.length >= threshold, "Too few sharepoints.")
-    new SecretMerging(ps.take(threshold), prime)
+  }
+
+  private def readSlices(paths: Iterable[Path]): IndexedSeq[JsonObject] = {
+    paths.map(
+      path => {
+        val fileIn = new FileInputStream(path.toFile)
+        try {
+          Json.createReader(fileIn).readObject()
+        } finally {
+          fileIn.close()
+        }
+      }
+    ).toIndexedSeq
+  }
+
+  private def processSlicesRobustly(jsonObjects: Seq[JsonObject]): RobustSecretMerging = {
+    checkPartitionIds(jsonObjects)
+    require(jsonObjects.forall(jsonObject => !ByteWiseSecretMerging.isByteWise(jsonObject)), "Byte-wise slices aren't supported.")
+    val threshold = jsonObjects.head.getInt("Threshold")
+    val prime = BigInt(jsonObjects.head.getJsonNumber("Prime").bigIntegerValue())
+    require(jsonObjects.forall(jsonObject => jsonObject.getInt("Threshold") == threshold && BigInt(jsonObject.getJsonNumber("Prime").bigIntegerValue()) == prime), "Inconsistent slices.")
+    new RobustSecretMerging(sharePoints(jsonObjects), prime, threshold)
+  }
+
+  /**
+   * Combines all shares of several JSON files instead of the first threshold shares. Inconsistent shares will be detected and corrected as long as there are
+   * enough consistent shares, see [[RobustSecretMerging]].
+   *
+   * @param paths the paths to the JSON files
+   * @return the recovered secret together with the inconsistent shares
+   */
+  def robust(paths: Iterable[Path]): RobustSecretMerging = processSlicesRobustly(readSlices(paths))
+
+  /**
+   * Combines all shares of several JSON files instead of the first threshold shares, see [[RobustSecretMerging]].
+   *
+   * @param paths the paths to the JSON files
+   * @return the recovered secret together with the inconsistent shares
+   */
+  def robust(paths: Array[Path]): RobustSecretMerging = robust(paths.toSeq)
+
+  /**
+   * Combines all shares of the given slices instead of the first threshold shares, see [[RobustSecretMerging]].
+   *
+   * @param slices the JsonArray containing the slices
+   * @return the recovered secret together with the inconsistent shares
+   */
+  def robust(slices: JsonArray): RobustSecretMerging = {
+    val iter = CollectionConverters.IteratorHasAsScala(slices.iterator()).asScala
+    processSlicesRobustly(iter.map(jsonValue => jsonValue.asJsonObject()).toIndexedSeq)
+  }
+
+  /**
+   * Recovers the secret from a JSON file regardless of the sharing scheme. A slice marked by [[ByteWiseSecretSharing.SCHEME]] will be merged byte-wise,
+   * see [[ByteWiseSecretMerging]].
+   *
+   * @param path the path to the JSON file
+   * @return the recovered secret
+   */
+  def recover(path: Path): RecoveredSecret = recover(Seq(path))
+
+  /**
+   * Recovers the secret from several JSON files regardless of the sharing scheme. Slices marked by [[ByteWiseSecretSharing.SCHEME]] will be merged
+   * byte-wise, see [[ByteWiseSecretMerging]].
+   *
+   * @param paths the paths to the JSON files
+   * @return the recovered secret
+   */
+  def recover(paths: Iterable[Path]): RecoveredSecret = recoverSlices(readSlices(paths))
+
+  /**
+   * Recovers the secret from several JSON files regardless of the sharing scheme, see [[ByteWiseSecretMerging]].
+   *
+   * @param paths the paths to the JSON files
+   * @return the recovered secret
+   */
+  def recover(paths: Array[Path]): RecoveredSecret = recover(paths.toSeq)
+
+  /**
+   * Recovers the secret from the given slices regardless of the sharing scheme, see [[ByteWiseSecretMerging]].
+   *
+   * @param slices the JsonArray containing the slices
+   * @return the recovered secret
+   */
+  def recover(slices: JsonArray): RecoveredSecret = {
+    val iter = CollectionConverters.IteratorHasAsScala(slices.iterator()).asScala
+    recoverSlices(iter.map(jsonValue => jsonValue.asJsonObject()).toIndexedSeq)
   }
 
   /**
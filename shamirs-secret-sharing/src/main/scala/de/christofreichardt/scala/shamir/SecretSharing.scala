@@ -19,17 +19,17 @@
 
 package de.christofreichardt.scala.shamir
 
-import de.christofreichardt.scala.combinations.{LazyBinomialCombinator, MetaCombinator}
+import de.christofreichardt.scala.combinations.{RevolvingDoorCombinator, binomialCoefficient}
 import de.christofreichardt.scala.diagnosis.Tracing
-import de.christofreichardt.scala.utils.{JsonPrettyPrinter, RandomGenerator}
+import de.christofreichardt.scala.utils.{RandomGenerator, SecureRandomProvider}
 import java.nio.file.Path
 import java.security.SecureRandom
 import java.util.UUID
-import jakarta.json.{Json, JsonArray, JsonObject}
+import jakarta.json.{Json, JsonObject}
 import scala.annotation.tailrec
 
 /**
- * A secret sharing sheme.
+ * A secret sharing sheme. The auxiliary constructors without a random source obtain one from the installed [[de.christofreichardt.scala.utils.SecureRandomProvider]].
  *
  * @constructor Creates a new SecretSharing sheme with shares, threshold, secretBytes and a secure random source.
  *
@@ -37,20 +37,32 @@ import scala.annotation.tailrec
  * @param threshold the number of shares required for the recovery of the secret bytes
  * @param secretBytes the actual secret
  * @param random the secure random source
+ * @param standardPrime indicates if the prime modulus should be taken from the [[StandardPrimes]] registry
  */
 class SecretSharing(
                      val shares: Int,
                      val threshold: Int,
                      val secretBytes: IndexedSeq[Byte],
-                     val random: SecureRandom)
-  extends Tracing {
+                     val random: SecureRandom,
+                     val standardPrime: Boolean)
+  extends Tracing with SharePointPartitioning[(BigInt, BigInt)] {
+
+  /**
+   * Creates a new SecretSharing sheme with shares, threshold, secretBytes and the given secure random source. A random prime modulus will be computed.
+   *
+   * @param shares the number of shares
+   * @param threshold the number of shares required for the recovery of the secret bytes
+   * @param secretBytes the actual secret
+   * @param random the secure random source
+   */
+  def this(shares: Int, threshold: Int, secretBytes: IndexedSeq[Byte], random: SecureRandom) = this(shares, threshold, secretBytes, random, false)
 
   /**
    * Creates a new SecretSharing sheme with 6 shares, threshold == 3, the given secretBytes and a default secure random source.
    *
    * @param secretBytes the actual secret
    */
-  def this(secretBytes: IndexedSeq[Byte]) = this(6, 3, secretBytes, new SecureRandom)
+  def this(secretBytes: IndexedSeq[Byte]) = this(6, 3, secretBytes, SecureRandomProvider.secureRandom)
 
   /**
    * Creates a new SecretSharing sheme with shares, threshold, secretBytes and a default secure random source.
@@ -59,7 +71,7 @@ class SecretSharing(
    * @param threshold the number of shares required for the recovery of the secret bytes
    * @param secretBytes the actual secret
    */
-  def this(shares: Int, threshold: Int, secretBytes: IndexedSeq[Byte]) = this(shares, threshold, secretBytes, new SecureRandom)
+  def this(shares: Int, threshold: Int, secretBytes: IndexedSeq[Byte]) = this(shares, threshold, secretBytes, SecureRandomProvider.secureRandom)
 
   /**
    * Creates a new SecretSharing sheme with shares, threshold, secretBytes and a default secure random source. This is convenient when calling from Java.
@@ -68,7 +80,7 @@ class SecretSharing(
    * @param threshold the number of shares required for the recovery of the secret bytes
    * @param secretBytes the actual secret
    */
-  def this(shares: Int, threshold: Int, secretBytes: Array[Byte]) = this(shares, threshold, secretBytes.toIndexedSeq, new SecureRandom)
+  def this(shares: Int, threshold: Int, secretBytes: Array[Byte]) = this(shares, threshold, secretBytes.toIndexedSeq, SecureRandomProvider.secureRandom)
 
   /**
    * Creates a new SecretSharing sheme with shares, threshold, password and a default secure random source.
@@ -79,6 +91,18 @@ class SecretSharing(
    */
   def this(shares: Int, threshold: Int, password: CharSequence) = this(shares, threshold, charSequenceToByteArray(password))
 
+  /**
+   * Creates a new SecretSharing sheme with shares, threshold, password and a default secure random source. The prime modulus will optionally be taken
+   * from the [[StandardPrimes]] registry.
+   *
+   * @param shares the number of shares
+   * @param threshold the number of shares required for the recovery of the secret bytes
+   * @param password the actual secret, will be encoded with UTF-8
+   * @param standardPrime indicates if the prime modulus should be taken from the [[StandardPrimes]] registry
+   */
+  def this(shares: Int, threshold: Int, password: CharSequence, standardPrime: Boolean) =
+    this(shares, threshold, charSequenceToByteArray(password).toIndexedSeq, SecureRandomProvider.secureRandom, standardPrime)
+
   /** An alias for shares */
   val n: Int = shares
   /** An alias for threshold */
@@ -108,43 +132,56 @@ class SecretSharing(
 
   /** The partition id */
   val id: String = UUID.randomUUID().toString
-  /** All shares converted into a JSON object */
-  lazy val sharePointsAsJson: JsonObject = sharePointsAsJson(sharePoints)
+  /** The field implementation shared by all merges carried out during the certification */
+  lazy val certificationField: PrimeField = PrimeField.montgomery(prime)
   /**
    * Indicates if cross checks with all possible combinations of shares with a sharepoint count that equals the threshold have successfully produced the secret.
    * This is backed by a potentially very expensive operation.
    */
-  lazy val verified: (Boolean, Int) = verifyAll
+  lazy val verified: (Boolean, Long) = verifyAll
   /**
    * Ensures that all combinations of shares below the threshold have failed to produce the secret. This is backed by a potentially very expensive operation.
    */
-  lazy val falsified: (Boolean, Int) = falsifyAll
+  lazy val falsified: (Boolean, Long) = falsifyAll
+  /**
+   * Certifies the shares analytically, see [[certifyAnalytically]]. This is cheap even for a large number of shares.
+   */
+  lazy val certified: CertificationResult = certifyAnalytically
   /**
-   * Indicates that both [[verified]] and [[falsified]] have produced the expected results
+   * Indicates that both [[verified]] and [[falsified]] have produced the expected results. This is backed by a potentially very expensive operation.
    */
-  lazy val certified: CertificationResult = {
+  lazy val exhaustivelyCertified: CertificationResult = {
     assert(verified._1 && falsified._1, "Generic sharepoint certification failed.")
     CertificationResult(falsified._2, verified._2)
   }
 
   /**
-   * Calculates a random prime p with the property s < p.
+   * Calculates a random prime p with the property s < p. If demanded, the smallest registered standard prime exceeding the bit length of s will be taken instead.
+   * A random prime will still be computed if the secret is too long for any of the registered primes.
    *
-   * @return a random prime
+   * @return a random or a standard prime
    */
   def choosePrime: BigInt = {
     val BIT_OFFSET = 1
     val bits = s.bitLength + BIT_OFFSET
-    BigInt(bits, CERTAINTY, random)
+    def randomPrime: BigInt = {
+      val prime = BigInt(bits, CERTAINTY, random)
+      VerifiedPrimes.register(prime)
+      prime
+    }
+
+    if (standardPrime) StandardPrimes.atLeast(bits).getOrElse(randomPrime)
+    else randomPrime
   }
 
   /**
-   * Calculates a batch of coefficients needed for the polynomial in the canonical form.
+   * Calculates a batch of coefficients needed for the polynomial in the canonical form. The coefficients are uniformly distributed (mod prime) and
+   * drawn in bulk.
    * @return the random coefficients
    */
   def chooseCanonicalCoefficients: IndexedSeq[BigInt] = {
-    val bits = s.bitLength * 2
-    randomGenerator.bigIntStream(bits, prime).take(k - 1).toIndexedSeq
+    val bits = math.max(s.bitLength * 2, prime.bitLength)
+    randomGenerator.nextBigInts(k - 1, bits, prime).toIndexedSeq
   }
 
   /**
@@ -161,62 +198,158 @@ class SecretSharing(
   }
 
   /**
-   * Computes the required number of random and distinct shares.
+   * Computes the required number of random and distinct shares. The non-zero x-coordinates are drawn in bulk, the polynomial is evaluated at all of them
+   * at once.
    *
    * @return the shares
    */
   def computeShares: IndexedSeq[(BigInt, BigInt)] = {
-    val bits = s.bitLength * 2
-    randomGenerator.bigIntStream(bits, prime)
-      .filterNot(x => x == BigInt(0))
-      .distinct
-      .take(shares)
-      .map(x => (x, polynomial.evaluateAt(x)))
-      .toIndexedSeq
+    val bits = math.max(s.bitLength * 2, prime.bitLength)
+    val xs = randomGenerator.nextDistinctBigInts(shares, bits, prime, Set(BigInt(0))).toIndexedSeq
+    xs.zip(Polynomial.evaluateAll(IndexedSeq(polynomial), xs).head)
   }
 
   /**
-   * Verifies that all valid combinations of shares recover the secret bytes. That is all combinations of shares with a sharepoint count
-   * that equals the threshold will be considered.
+   * Verifies that all valid combinations of shares recover the secret bytes by means of the default [[ParallelCertifier]].
    *
    * @return indicates the outcome of all possible and valid cross checks
    */
-  def verifyAll: (Boolean, Int) = {
-    val combinator = new LazyBinomialCombinator(this.n, this.k)
-    var count = 0
-    val verified = combinator.produceAll
-      .map(combination => {
-        val indices = combination
-        val selectedPoints = indices.map(index => sharePoints(index))
-        val merger = SecretMerging(selectedPoints, prime)
-        count = count + 1
-        merger.secretBytes
-      })
-      .forall(bytes => bytes == secretBytes)
-    (verified, count)
+  def verifyAll: (Boolean, Long) = verifyAll(ParallelCertifier())
+
+  /**
+   * Verifies that all valid combinations of shares recover the secret bytes. That is all combinations of shares with a sharepoint count
+   * that equals the threshold will be considered. The combinations are checked concurrently, the first failing combination cancels the remaining checks.
+   * Since the combinations are enumerated in revolving-door order, consecutive combinations differ by a single share and the interpolation of
+   * each combination can be derived from its predecessor, see [[IncrementalInterpolation]].
+   *
+   * @param certifier checks the combinations
+   * @return indicates the outcome of all possible and valid cross checks together with the number of checked combinations
+   */
+  def verifyAll(certifier: ParallelCertifier): (Boolean, Long) = {
+    val combinator = new RevolvingDoorCombinator(this.n, this.k)
+    certifier.forallStateful(combinator.iterator)(() => {
+      val interpolation = new IncrementalInterpolation(sharePoints, prime, certificationField)
+      indices => recoversSecret(interpolation, indices)
+    })
   }
 
-  def falsifyAll: (Boolean, Int) = {
-    val metaCombinator = new MetaCombinator(this.shares)
-    val solutions = metaCombinator.solutions
-    var count = 0
-    val falsified = solutions.zipWithIndex
-      .tail // skips 'n choose 0' -> {}
-      .filter(indexedCombinations => {
-        val (_, k) = indexedCombinations
-        k < this.threshold
-      })
-      .forall(indexedCombinations => {
-        val (combinations, k) = indexedCombinations
-        !combinations.map(combination => {
-          val indices = combination
-          val selectedPoints = indices.map(index => sharePoints(index))
-          val merger = SecretMerging(selectedPoints, this.prime)
-          count = count + 1
-          merger.secretBytes
-        }).contains(this.secretBytes)
-      })
-    (falsified, count)
+  /**
+   * Ensures that all combinations of shares below the threshold fail to recover the secret bytes by means of the default [[ParallelCertifier]].
+   *
+   * @return indicates the outcome of all invalid cross checks
+   */
+  def falsifyAll: (Boolean, Long) = falsifyAll(ParallelCertifier())
+
+  /**
+   * Ensures that all combinations of shares below the threshold fail to recover the secret bytes. The combinations are checked concurrently, the
+   * first combination recovering the secret cancels the remaining checks.
+   *
+   * @param certifier checks the combinations
+   * @return indicates the outcome of all invalid cross checks together with the number of checked combinations
+   */
+  def falsifyAll(certifier: ParallelCertifier): (Boolean, Long) = {
+    val combinations = Range(1, this.threshold).iterator // skips 'n choose 0' -> {}
+      .flatMap(k => new RevolvingDoorCombinator(this.shares, k).iterator)
+    certifier.forallStateful(combinations)(() => {
+      val interpolation = new IncrementalInterpolation(sharePoints, prime, certificationField)
+      indices => !recoversSecret(interpolation, indices)
+    })
+  }
+
+  /**
+   * Moves the given interpolation to the selected shares and checks if the secret bytes will be recovered.
+   *
+   * @param interpolation the interpolation over all shares
+   * @param indices the selected shares
+   * @return true if the selected shares recover the secret bytes
+   */
+  private def recoversSecret(interpolation: IncrementalInterpolation, indices: IndexedSeq[Int]): Boolean = {
+    interpolation.moveTo(indices)
+    bigIntToBytes(interpolation.valueAtZero) == this.secretBytes
+  }
+
+  /**
+   * Certifies the shares by verifying and falsifying all relevant combinations with the given certifier, see [[exhaustivelyCertified]].
+   *
+   * @param certifier checks the combinations
+   * @return the certification result
+   */
+  def certify(certifier: ParallelCertifier): CertificationResult = {
+    val verification = verifyAll(certifier)
+    val falsification = falsifyAll(certifier)
+    assert(verification._1 && falsification._1, "Generic sharepoint certification failed.")
+    CertificationResult(falsification._2, verification._2)
+  }
+
+  /**
+   * Certifies the shares without merging every combination. The x-coordinates must be pairwise different and non-zero, the polynomial must have
+   * degree k - 1 with the encoded secret as its constant term and every share must lie on the polynomial. Then any k shares determine the polynomial
+   * uniquely and hence recover the secret. The interpolation itself is checked by merging a single random combination of k shares. Likewise a single
+   * random combination of k - 1 shares must fail to recover the secret. The counts of the [[CertificationResult]] are given by the binomial sums which
+   * the exhaustive certification would have checked.
+   *
+   * @return the certification result
+   */
+  def certifyAnalytically: CertificationResult = {
+    val xs = sharePoints.map(point => point._1.mod(prime))
+    assert(pairWiseDifferent(xs) && xs.forall(x => x != BigInt(0)), "The x-coordinates must be pairwise different and non-zero.")
+    assert(polynomial.degree == k - 1, "The polynomial must have degree k - 1.")
+    assert(polynomial.coefficients.last == s && bigIntToBytes(s) == secretBytes, "The constant term must encode the secret.")
+    val ys = Polynomial.evaluateAll(IndexedSeq(polynomial), xs).head
+    assert(sharePoints.map(point => point._2.mod(prime)) == ys, "All shares must lie on the polynomial.")
+    val shuffledPoints = randomGenerator.random.shuffle(sharePoints)
+    assert(SecretMerging(shuffledPoints.take(k), prime, certificationField).secretBytes == secretBytes, "Random interpolation check failed.")
+    assert(SecretMerging(shuffledPoints.take(k - 1), prime, certificationField).secretBytes != secretBytes, "Random falsification check failed.")
+    val verifiedCount = binomialCoefficient(n, k)
+    val falsifiedCount = Range(1, k).map(j => binomialCoefficient(n, j)).sum
+    assert(falsifiedCount.isValidLong && verifiedCount.isValidLong, "Too many shares to count the combinations.")
+    CertificationResult(falsifiedCount.toLong, verifiedCount.toLong)
+  }
+
+  /**
+   * Certifies the shares statistically by means of the default [[ParallelCertifier]].
+   *
+   * @param sampler draws the combinations
+   * @return the certification result comprising the sample counts and the error bound
+   */
+  def certifyBySampling(sampler: SamplingCertifier): CertificationResult = certifyBySampling(sampler, ParallelCertifier())
+
+  /**
+   * Certifies the shares statistically. Uniformly distributed combinations of k shares must recover the secret bytes whereas uniformly distributed
+   * combinations below the threshold must fail to recover the secret bytes. The counts of the [[CertificationResult]] are given by the number of
+   * samples, the error bound applies to both populations. A population which hasn't been sampled at all within the time budget fails the
+   * certification, since nothing would have been proven.
+   *
+   * @param sampler draws the combinations
+   * @param certifier checks the combinations
+   * @return the certification result comprising the sample counts and the error bound
+   */
+  def certifyBySampling(sampler: SamplingCertifier, certifier: ParallelCertifier): CertificationResult = {
+    def recovers(indices: IndexedSeq[Int]): Boolean = SecretMerging(indices.map(index => sharePoints(index)), prime, certificationField).secretBytes == secretBytes
+    val (verification, verifiedCount) = certifier.forall(sampler.combinations(n, Range.inclusive(k, k)))(indices => recovers(indices))
+    val (falsification, falsifiedCount) = certifier.forall(sampler.combinations(n, Range(1, k)))(indices => !recovers(indices))
+    assert(verification && falsification, "Sampling certification failed.")
+    assert(verifiedCount > 0 && falsifiedCount > 0, "No samples have been checked within the time budget.")
+    val errorBound = math.max(sampler.errorBound(falsifiedCount), sampler.errorBound(verifiedCount))
+    CertificationResult(falsifiedCount, verifiedCount, errorBound)
+  }
+
+  /**
+   * Creates a resumable and shardable exhaustive certification job for this scheme, see [[CertificationJob]].
+   *
+   * @return the certification job
+   */
+  def certificationJob: CertificationJob = CertificationJob(this)
+
+  /**
+   * Merges the checkpoints of a completed [[CertificationJob]] of this scheme into the certification result.
+   *
+   * @param checkpoints the checkpoint files of all shards
+   * @return the certification result
+   */
+  def mergeCertification(checkpoints: Iterable[Path]): CertificationResult = {
+    val (falsifiedCount, verifiedCount) = certificationJob.mergeCheckpoints(checkpoints)
+    CertificationResult(falsifiedCount, verifiedCount)
   }
 
   /**
@@ -242,124 +375,84 @@ class SecretSharing(
   }
 
   /**
-    * Partitions the share points into disjunct sequences according to the given sizes.
-    *
-    * @param sizes denotes the sizes of the desired share point sequences
-    * @return a list of share point sequences
-    */
-  def sharePointPartition(sizes: Iterable[Int]): List[IndexedSeq[(BigInt, BigInt)]] = {
-    require(sizes.sum == sharePoints.length, "The sum of the shares of each slice doesn't match the number of overall shares.")
-    require(sizes.forall(s => s <= k), "A particular slice must not exceed the threshold.")
-
-    @tailrec
-    def partition(sizes: Iterable[Int], remainingPoints: IndexedSeq[(BigInt, BigInt)], partitions: List[IndexedSeq[(BigInt, BigInt)]]): List[IndexedSeq[(BigInt, BigInt)]] = {
-      if (sizes.isEmpty) partitions
-      else partition(sizes.tail, remainingPoints.drop(sizes.head), remainingPoints.take(sizes.head) :: partitions)
-    }
-
-    partition(sizes, sharePoints, List())
-  }
+   * Certifies a given sharepoint partition by analyzing its [[AccessStructure]]. Provided that the shares have been [[certified]], the ability of a slice combination
+   * to recover the secret depends solely on its sharepoint count. Hence the numbers of valid and invalid slice combinations are counted without merging them. Only
+   * a small set of representatives will be checked cryptographically: the minimal authorized slice combinations must recover the secret whereas these combinations
+   * minus their smallest slice must fail to recover the secret. This is feasible for partitions with a large number of slices.
+   *
+   * @param partition the given sharepoint partition
+   * @return the result of the certification if successful
+   */
+  def certifySharePointPartition(partition: List[IndexedSeq[(BigInt, BigInt)]]): CertificationResult = certifySharePointPartition(partition, ParallelCertifier())
 
   /**
-   * A mere data holder for recording the certification (both falsification and verification) results of a sharepoint partition.
+   * Certifies a given sharepoint partition by analyzing its [[AccessStructure]] whereby the representative slice combinations are checked by the given certifier,
+   * see [[certifySharePointPartition]].
    *
-   * @param falsified the number of falsified slice combinations with a sharepoint count below the threshold
-   * @param verified the number of verified slice combinations with a sharepoint count equal or above the threshold
+   * @param partition the given sharepoint partition
+   * @param certifier checks the representative slice combinations
+   * @return the result of the certification if successful
    */
-  case class CertificationResult(falsified: Int, verified: Int) {
-    override def toString: String = String.format("(%d falsified, %d verified)", falsified, verified)
+  def certifySharePointPartition(partition: List[IndexedSeq[(BigInt, BigInt)]], certifier: ParallelCertifier): CertificationResult = {
+    val knownPoints = sharePoints.toSet
+    val partitionPoints = partition.flatten
+    assert(partitionPoints.forall(point => knownPoints.contains(point)) && pairWiseDifferent(partitionPoints), "The partition must comprise distinct sharepoints of this scheme.")
+    assert(certified.verified > 0, "Generic sharepoint certification failed.")
+    val indexedPartition = partition.toIndexedSeq
+    val accessStructure = new AccessStructure(indexedPartition.map(slice => slice.length), this.threshold)
+    val (authorized, unauthorized) = accessStructure.representatives(AccessStructure.DEFAULT_REPRESENTATIVES)
+
+    def recovers(coalition: IndexedSeq[Int]): Boolean = {
+      val points = coalition.flatMap(index => indexedPartition(index))
+      SecretMerging(points, this.prime, certificationField).secretBytes == this.secretBytes
+    }
+
+    val (verified, _) = certifier.forall(authorized.iterator)(coalition => recovers(coalition))
+    val (falsified, _) = certifier.forall(unauthorized.iterator)(coalition => !recovers(coalition))
+    assert(verified && falsified, "Certification of sharepoint partition failed.")
+    CertificationResult(accessStructure.unauthorizedCount, accessStructure.authorizedCount)
   }
 
   /**
    * Certifies a given sharepoint partition by falsifying all slice combinations with a sharepoint count below the threshold and vice versa by verifying all valid
    * slice combinations with a sharepoint count equal or above the threshold. This is a potentially very expensive calculation (both time and memory at present) since
-   * all combinations from 'n choose 1' up to 'n choose n' must be considered whereby n is given by the number of slices within the partition
+   * all combinations from 'n choose 1' up to 'n choose n' must be considered whereby n is given by the number of slices within the partition. The slice combinations
+   * are checked concurrently by the given certifier. They are enumerated in revolving-door order, hence consecutive slice combinations differ by a single slice and
+   * the interpolation can be updated incrementally.
    *
    * @param partition the given sharepoint partition
+   * @param certifier checks the slice combinations
    * @return the result of the certification if successful
    */
-  def certifySharePointPartition(partition: List[IndexedSeq[(BigInt, BigInt)]]): CertificationResult  = {
-
-    def evaluateSharePointPartition(seqSizePredicate: IndexedSeq[(BigInt, BigInt)] => Boolean,
-                                    bytesPredicate: IndexedSeq[Byte] => Boolean): Int = {
-      val indexedPartition = partition.toIndexedSeq
-      val metaCombinator = new MetaCombinator(indexedPartition.length)
-      val validSliceCombinations = metaCombinator.solutions
-        .flatten
-        .dropWhile(indices => indices.isEmpty)
-        .map(indices => indices.flatMap(index => indexedPartition(index)))
-        .filter(seqSizePredicate)
-      val count = validSliceCombinations.length
-      validSliceCombinations.map(sliceCombination => new SecretMerging(sliceCombination, this.prime))
-        .map(merger => merger.secretBytes)
-        .forall(bytesPredicate)
-        .ensuring(verified => verified, "Certification of sharepoint partition failed.")
+  def certifySharePointPartitionExhaustively(partition: List[IndexedSeq[(BigInt, BigInt)]], certifier: ParallelCertifier = ParallelCertifier()): CertificationResult  = {
+
+    val indexedPartition = partition.toIndexedSeq
+    val partitionPoints = indexedPartition.flatten
+    val offsets = indexedPartition.scanLeft(0)((offset, slice) => offset + slice.length)
+    val slicePointIndices = indexedPartition.indices.map(i => Range(offsets(i), offsets(i + 1)))
+
+    def evaluateSharePointPartition(seqSizePredicate: Int => Boolean, recoveryPredicate: Boolean => Boolean): Long = {
+      val validSliceCombinations = Range.inclusive(1, indexedPartition.length).iterator // skips 'n choose 0' -> {}
+        .flatMap(k => new RevolvingDoorCombinator(indexedPartition.length, k).iterator)
+        .map(indices => indices.flatMap(index => slicePointIndices(index)))
+        .filter(pointIndices => seqSizePredicate(pointIndices.length))
+      val (verified, count) = certifier.forallStateful(validSliceCombinations)(() => {
+        val interpolation = new IncrementalInterpolation(partitionPoints, this.prime, certificationField)
+        pointIndices => {
+          interpolation.moveTo(pointIndices)
+          recoveryPredicate(bigIntToBytes(interpolation.valueAtZero) == this.secretBytes)
+        }
+      })
+      assert(verified, "Certification of sharepoint partition failed.")
 
       count
     }
 
-    val falsifiedCount = evaluateSharePointPartition((points: IndexedSeq[(BigInt, BigInt)]) => points.size < this.threshold, (bytes: IndexedSeq[Byte]) => bytes != this.secretBytes)
-    val verifiedCount = evaluateSharePointPartition((points: IndexedSeq[(BigInt, BigInt)]) => points.size >= this.threshold, (bytes: IndexedSeq[Byte]) => bytes == this.secretBytes)
+    val falsifiedCount = evaluateSharePointPartition(size => size < this.threshold, recovered => !recovered)
+    val verifiedCount = evaluateSharePointPartition(size => size >= this.threshold, recovered => recovered)
     CertificationResult(falsifiedCount, verifiedCount)
   }
 
-  /**
-   * Partitions the shares according to the given sizes and converts the different slices containing the shares into a JSON array containing the slices as JSON objects.
-   *
-   * @param sizes denotes a partition
-   * @return the JSON array of slices containing the shares
-   */
-  def partitionAsJson(sizes: Array[Int]): JsonArray = {
-    val partition = sharePointPartition(sizes)
-    val arrayBuilder = Json.createArrayBuilder()
-    partition.map(slice => sharePointsAsJson(slice))
-      .foreach(slice => arrayBuilder.add(slice))
-    arrayBuilder.build()
-  }
-
-  /**
-   * Saves the desired partition. The partition can optionally be certified by verifying all slice combinations containing share points equal or above the threshold
-   * and by falsifying all other (invalid) slice combinations.
-   *
-   * @param sizes denotes the partition
-   * @param path the path to the partition file
-   * @param certified indicates if the partition is to be certified
-   * @return the optional certification result indicating the number of verified and falsified slice combinations
-   */
-  def savePartition(sizes: Iterable[Int], path: Path, certified: Boolean = false): Option[CertificationResult] = {
-    require(path.getParent.toFile.exists() && path.getParent.toFile.isDirectory)
-    val prettyPrinter = new JsonPrettyPrinter
-    prettyPrinter.print(path.getParent.resolve(path.getFileName.toString + ".json").toFile, this.sharePointsAsJson)
-    val partition = sharePointPartition(sizes)
-    val certificationResult = {
-      if (certified) Option(certifySharePointPartition(partition))
-      else Option.empty
-    }
-    partition.map(part => sharePointsAsJson(part))
-      .zipWithIndex
-      .foreach({
-        case (jsonObject, i) => prettyPrinter.print(path.getParent.resolve(path.getFileName.toString + "-" + i + ".json").toFile, jsonObject)
-      })
-    certificationResult
-  }
-
-  /**
-   * A convenience method. Saves the partition in the order as given by the sizes.
-   *
-   * @param sizes denotes the partition
-   * @param path the path to the partition file
-   */
-  def savePartition(sizes: Array[Int], path: Path): Option[CertificationResult] = savePartition(sizes.reverse.toSeq, path)
-
-  /**
-   * a convenience method. Demands that the desired partition is to be certified before saving, see [[savePartition()]].
-   *
-   * @param sizes denotes the partition
-   * @param path the path to the partition file
-   * @return the certification result indicating the number of verified and falsified slice combinations
-   */
-  def saveCertifiedPartition(sizes: Array[Int], path: Path): CertificationResult = savePartition(sizes.reverse.toSeq, path, true).get
-
   /**
    * Gives a textual representation of this particular secret sharing sheme.
    * @return the textual representation
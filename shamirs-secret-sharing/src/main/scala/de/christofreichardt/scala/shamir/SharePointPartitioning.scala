@@ -0,0 +1,150 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.utils.JsonPrettyPrinter
+import java.nio.file.Path
+import jakarta.json.{Json, JsonArray, JsonObject}
+import scala.annotation.tailrec
+
+/**
+ * Partitions the shares of a sharing scheme into slices, translates the slices into JSON and saves them, regardless of the representation of the
+ * shares, see [[SecretSharing]] and [[ByteWiseSecretSharing]]. The schemes provide the JSON representation of their shares and the certification of
+ * a partition.
+ *
+ * @tparam P the type of a single share
+ */
+trait SharePointPartitioning[P] {
+
+  /** the number of shares required for the recovery of the secret bytes */
+  def threshold: Int
+
+  /** the actual shares */
+  def sharePoints: IndexedSeq[P]
+
+  /**
+   * Translates the given shares into JSON.
+   *
+   * @param ps the shares
+   * @return the JSON containing the shares
+   */
+  def sharePointsAsJson(ps: IndexedSeq[P]): JsonObject
+
+  /**
+   * Certifies the given sharepoint partition.
+   *
+   * @param partition the given sharepoint partition
+   * @return the result of the certification if successful
+   */
+  def certifySharePointPartition(partition: List[IndexedSeq[P]]): CertificationResult
+
+  /** All shares converted into a JSON object */
+  lazy val sharePointsAsJson: JsonObject = sharePointsAsJson(sharePoints)
+
+  /**
+   * A mere data holder for recording the certification (both falsification and verification) results of a sharepoint partition.
+   *
+   * @param falsified the number of falsified slice combinations with a sharepoint count below the threshold
+   * @param verified the number of verified slice combinations with a sharepoint count equal or above the threshold
+   * @param errorBound the upper bound of the fraction of failing combinations if the combinations have been sampled, zero otherwise
+   */
+  case class CertificationResult(falsified: Long, verified: Long, errorBound: Double = 0.0) {
+    override def toString: String = {
+      if (errorBound == 0.0) String.format("(%d falsified, %d verified)", falsified, verified)
+      else String.format("(%d falsified, %d verified, error bound %.6f)", falsified, verified, errorBound)
+    }
+  }
+
+  /**
+    * Partitions the share points into disjunct sequences according to the given sizes.
+    *
+    * @param sizes denotes the sizes of the desired share point sequences
+    * @return a list of share point sequences
+    */
+  def sharePointPartition(sizes: Iterable[Int]): List[IndexedSeq[P]] = {
+    require(sizes.sum == sharePoints.length, "The sum of the shares of each slice doesn't match the number of overall shares.")
+    require(sizes.forall(s => s <= threshold), "A particular slice must not exceed the threshold.")
+
+    @tailrec
+    def partition(sizes: Iterable[Int], remainingPoints: IndexedSeq[P], partitions: List[IndexedSeq[P]]): List[IndexedSeq[P]] = {
+      if (sizes.isEmpty) partitions
+      else partition(sizes.tail, remainingPoints.drop(sizes.head), remainingPoints.take(sizes.head) :: partitions)
+    }
+
+    partition(sizes, sharePoints, List())
+  }
+
+  /**
+   * Partitions the shares according to the given sizes and converts the different slices containing the shares into a JSON array containing the slices as JSON objects.
+   *
+   * @param sizes denotes a partition
+   * @return the JSON array of slices containing the shares
+   */
+  def partitionAsJson(sizes: Array[Int]): JsonArray = {
+    val partition = sharePointPartition(sizes)
+    val arrayBuilder = Json.createArrayBuilder()
+    partition.map(slice => sharePointsAsJson(slice))
+      .foreach(slice => arrayBuilder.add(slice))
+    arrayBuilder.build()
+  }
+
+  /**
+   * Saves the desired partition. The partition can optionally be certified by verifying all slice combinations containing share points equal or above the threshold
+   * and by falsifying all other (invalid) slice combinations.
+   *
+   * @param sizes denotes the partition
+   * @param path the path to the partition file
+   * @param certified indicates if the partition is to be certified
+   * @return the optional certification result indicating the number of verified and falsified slice combinations
+   */
+  def savePartition(sizes: Iterable[Int], path: Path, certified: Boolean = false): Option[CertificationResult] = {
+    require(path.getParent.toFile.exists() && path.getParent.toFile.isDirectory)
+    val prettyPrinter = new JsonPrettyPrinter
+    prettyPrinter.print(path.getParent.resolve(path.getFileName.toString + ".json").toFile, this.sharePointsAsJson)
+    val partition = sharePointPartition(sizes)
+    val certificationResult = {
+      if (certified) Option(certifySharePointPartition(partition))
+      else Option.empty
+    }
+    partition.map(part => sharePointsAsJson(part))
+      .zipWithIndex
+      .foreach({
+        case (jsonObject, i) => prettyPrinter.print(path.getParent.resolve(path.getFileName.toString + "-" + i + ".json").toFile, jsonObject)
+      })
+    certificationResult
+  }
+
+  /**
+   * A convenience method. Saves the partition in the order as given by the sizes.
+   *
+   * @param sizes denotes the partition
+   * @param path the path to the partition file
+   */
+  def savePartition(sizes: Array[Int], path: Path): Option[CertificationResult] = savePartition(sizes.reverse.toSeq, path)
+
+  /**
+   * a convenience method. Demands that the desired partition is to be certified before saving, see [[savePartition()]].
+   *
+   * @param sizes denotes the partition
+   * @param path the path to the partition file
+   * @return the certification result indicating the number of verified and falsified slice combinations
+   */
+  def saveCertifiedPartition(sizes: Array[Int], path: Path): CertificationResult = savePartition(sizes.reverse.toSeq, path, true).get
+}
\ No newline at end of file
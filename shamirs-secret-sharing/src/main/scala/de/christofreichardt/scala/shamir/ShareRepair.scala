@@ -0,0 +1,213 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scala.diagnosis.Tracing
+import java.io.FileInputStream
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import java.util.stream.IntStream
+import jakarta.json.{Json, JsonArray, JsonObject}
+import scala.jdk.CollectionConverters
+
+/**
+ * Computes replacement shares for a custodian who has lost a slice without recovering the secret. Any k shares determine the interpolating polynomial, hence
+ * its value at a new or the former x-coordinate of the custodian is given by the dot product of the Lagrange basis weights at that position with the
+ * y-coordinates, see [[LagrangeInterpolation.weights]]. The weights depend solely on the x-coordinates, therefore they are computed only once per position and
+ * reused for any number of secrets sharing the x-coordinates, e.g. the secrets of a [[BatchSecretSharing]]. The slices of the other custodians stay valid.
+ *
+ * @constructor Creates a repair for shares with the given x-coordinates and prime.
+ *
+ * @param xs the pairwise different x-coordinates of the available shares, exactly threshold many
+ * @param prime the prime modulus
+ */
+class ShareRepair(val xs: IndexedSeq[BigInt], val prime: BigInt) extends Tracing {
+
+  require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+  require(xs.nonEmpty, "At least one x-coordinate is required.")
+
+  private val reducedXs = xs.map(x => x.mod(prime))
+
+  require(pairWiseDifferent(reducedXs), "Supporting points must be pairwise different and unambiguous.")
+
+  private val weights = new ConcurrentHashMap[BigInt, IndexedSeq[BigInt]]()
+
+  /**
+   * Gives the Lagrange basis weights at the given position. The position must neither be zero, which would reveal the secret, nor one of the given
+   * x-coordinates.
+   *
+   * @param x the position
+   * @return the weights in the order of the x-coordinates
+   */
+  def weightsAt(x: BigInt): IndexedSeq[BigInt] = {
+    val position = x.mod(prime)
+    require(position != BigInt(0), "Shares at x == 0 would reveal the secret.")
+    require(!reducedXs.contains(position), String.format("%s belongs to an available share.", position))
+    weights.computeIfAbsent(position, p => LagrangeInterpolation.weights(reducedXs, p, prime))
+  }
+
+  /**
+   * Computes the replacement share of a single secret.
+   *
+   * @param ys the y-coordinates of the available shares in the order of the x-coordinates
+   * @param x the position of the replacement share
+   * @return the replacement share
+   */
+  def repair(ys: IndexedSeq[BigInt], x: BigInt): (BigInt, BigInt) = (x.mod(prime), LagrangeInterpolation.dotProduct(weightsAt(x), ys, prime))
+
+  /**
+   * Computes the replacement shares of the given secrets in parallel.
+   *
+   * @param yss for each secret the y-coordinates of the available shares in the order of the x-coordinates
+   * @param x the position of the replacement shares
+   * @return the replacement shares in the given order
+   */
+  def repairAll(yss: IndexedSeq[IndexedSeq[BigInt]], x: BigInt): IndexedSeq[(BigInt, BigInt)] = {
+    val ws = weightsAt(x)
+    val results = Array.ofDim[(BigInt, BigInt)](yss.length)
+    IntStream.range(0, yss.length).parallel().forEach(i => results(i) = (x.mod(prime), LagrangeInterpolation.dotProduct(ws, yss(i), prime)))
+    results.toIndexedSeq
+  }
+
+  override def toString: String = String.format("ShareRepair[xs=(%s), prime=%s]", xs.mkString(","), prime)
+}
+
+/**
+ * This object provides the repair of slices. Both plain slices and multi-secret slices, see [[BatchSecretSharing]], are supported. The replacement slice
+ * keeps the PartitionId, the Prime and the Threshold of the given slices.
+ */
+object ShareRepair {
+
+  /**
+   * Directly calls the `ShareRepair` primary constructor.
+   *
+   * @param xs the pairwise different x-coordinates of the available shares
+   * @param prime the prime modulus
+   * @return the share repair
+   */
+  def apply(xs: IndexedSeq[BigInt], prime: BigInt): ShareRepair = new ShareRepair(xs, prime)
+
+  /**
+   * Computes a replacement slice from the given slices.
+   *
+   * @param slices the JsonArray containing the available slices
+   * @param xs the positions of the replacement shares
+   * @return the replacement slice
+   */
+  def apply(slices: JsonArray, xs: IndexedSeq[BigInt]): JsonObject = {
+    val jsonObjects = CollectionConverters.IteratorHasAsScala(slices.iterator()).asScala
+      .map(jsonValue => jsonValue.asJsonObject())
+      .toIndexedSeq
+    repairSlice(jsonObjects, xs)
+  }
+
+  /**
+   * Computes a replacement slice from the given slice files.
+   *
+   * @param paths the paths to the available slices
+   * @param xs the positions of the replacement shares
+   * @return the replacement slice
+   */
+  def apply(paths: Iterable[Path], xs: IndexedSeq[BigInt]): JsonObject = {
+    val jsonObjects = paths.map(path => {
+      val fileIn = new FileInputStream(path.toFile)
+      try {
+        Json.createReader(fileIn).readObject()
+      } finally {
+        fileIn.close()
+      }
+    }).toIndexedSeq
+    repairSlice(jsonObjects, xs)
+  }
+
+  /**
+   * Computes a replacement slice from the given slice files. This is convenient when calling from Java.
+   *
+   * @param paths the paths to the available slices
+   * @param xs the positions of the replacement shares
+   * @return the replacement slice
+   */
+  def apply(paths: Array[Path], xs: Array[java.math.BigInteger]): JsonObject = apply(paths.toSeq, xs.toIndexedSeq.map(x => BigInt(x)))
+
+  private def repairSlice(jsonObjects: Seq[JsonObject], xs: IndexedSeq[BigInt]): JsonObject = {
+    require(jsonObjects.nonEmpty, "Empty Sequence.")
+    require(xs.nonEmpty, "At least one replacement share is required.")
+    require(jsonObjects.forall(jsonObject => jsonObject.containsKey("PartitionId")), "No PartitionId found.")
+    val partitionId = jsonObjects.head.getString("PartitionId")
+    require(jsonObjects.forall(jsonObject => jsonObject.getString("PartitionId") == partitionId), "Inconsistent PartitionIds.")
+    require(jsonObjects.forall(jsonObject => !ByteWiseSecretMerging.isByteWise(jsonObject)), "Byte-wise slices aren't supported.")
+    val prime = BigInt(jsonObjects.head.getJsonNumber("Prime").bigIntegerValue())
+    val threshold = jsonObjects.head.getInt("Threshold")
+    require(jsonObjects.forall(jsonObject => jsonObject.getInt("Threshold") == threshold && BigInt(jsonObject.getJsonNumber("Prime").bigIntegerValue()) == prime), "Inconsistent slices.")
+    val batch = jsonObjects.map(jsonObject => BatchSecretSharing.isBatch(jsonObject))
+    require(batch.forall(marked => marked == batch.head), "Inconsistent slices.")
+    val secrets = {
+      if (batch.head) {
+        val entries = jsonObjects.flatMap(jsonObject => CollectionConverters.IteratorHasAsScala(jsonObject.getJsonArray(BatchSecretSharing.SECRETS).iterator()).asScala
+          .map(jsonValue => jsonValue.asJsonObject())
+          .map(secret => (secret.getString("SecretId"), BatchSecretMerging.sharePoints(secret.getJsonArray("SharePoints")))))
+        val secretIds = entries.map(entry => entry._1).distinct
+        val grouped = entries.groupBy(entry => entry._1)
+        secretIds.map(secretId => (secretId, grouped(secretId).flatMap(entry => entry._2).toIndexedSeq))
+      } else {
+        IndexedSeq((partitionId, jsonObjects.flatMap(jsonObject => BatchSecretMerging.sharePoints(jsonObject.getJsonArray("SharePoints"))).toIndexedSeq))
+      }
+    }
+    require(secrets.forall(secret => secret._2.length >= threshold), "Too few sharepoints.")
+    val knownXs = secrets.flatMap(secret => secret._2.map(point => point._1.mod(prime))).toSet
+    require(pairWiseDifferent(xs.map(x => x.mod(prime))) && xs.forall(x => !knownXs.contains(x.mod(prime))), "The replacement shares must have new and pairwise different x-coordinates.")
+    val repaired = secrets.groupBy(secret => secret._2.take(threshold).map(point => point._1)).toSeq
+      .flatMap({
+        case (supportingXs, group) =>
+          val shareRepair = new ShareRepair(supportingXs, prime)
+          val yss = group.map(secret => secret._2.take(threshold).map(point => point._2)).toIndexedSeq
+          val sharePoints = xs.map(x => shareRepair.repairAll(yss, x))
+          group.indices.map(i => (group(i)._1, xs.indices.map(j => sharePoints(j)(i))))
+      })
+      .toMap
+    val builder = Json.createObjectBuilder()
+      .add("PartitionId", partitionId)
+      .add("Prime", prime.bigInteger)
+      .add("Threshold", threshold)
+    if (batch.head) {
+      val secretsBuilder = Json.createArrayBuilder()
+      secrets.foreach(secret => {
+        secretsBuilder.add(Json.createObjectBuilder()
+          .add("SecretId", secret._1)
+          .add("SharePoints", sharePointsAsJson(repaired(secret._1))))
+      })
+      builder.add(BatchSecretSharing.SECRETS, secretsBuilder.build())
+    } else {
+      builder.add("SharePoints", sharePointsAsJson(repaired(partitionId)))
+    }
+    builder.build()
+  }
+
+  private def sharePointsAsJson(sharePoints: IndexedSeq[(BigInt, BigInt)]): JsonArray = {
+    val arrayBuilder = Json.createArrayBuilder()
+    sharePoints.foreach(sharePoint => {
+      arrayBuilder.add(Json.createObjectBuilder()
+        .add("SharePoint", Json.createObjectBuilder()
+          .add("x", sharePoint._1.bigInteger)
+          .add("y", sharePoint._2.bigInteger)))
+    })
+    arrayBuilder.build()
+  }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import java.io.EOFException
+import java.nio.ByteBuffer
+import java.nio.channels.{ReadableByteChannel, WritableByteChannel}
+import java.util.UUID
+
+/**
+ * The header of a share stream produced by [[StreamingSecretSharing]]. A share stream consists of the header followed by a sequence of chunk
+ * records, each of them given by its length (a four byte integer) and the y-bytes of the chunk. A chunk record of length zero terminates the stream.
+ *
+ * <pre>
+ *   magic (4 bytes) | version (1 byte) | threshold (1 byte) | x (1 byte) | chunk size (4 bytes) | id (16 bytes)
+ * </pre>
+ *
+ * @param id identifies the share streams belonging together
+ * @param threshold the number of share streams required for the recovery of the secret
+ * @param x the non-zero x-coordinate within GF(256) of this share stream
+ * @param chunkSize the maximal length of a chunk
+ */
+case class ShareStreamHeader(id: UUID, threshold: Int, x: Int, chunkSize: Int) {
+
+  require(threshold >= 2 && threshold < GF256.ORDER, "Invalid threshold.")
+  require(x > 0 && x < GF256.ORDER, "The x-coordinate must be a non-zero element of GF(256).")
+  require(chunkSize > 0, "Invalid chunk size.")
+
+  /**
+   * Writes the header to the given channel.
+   *
+   * @param channel the target channel
+   */
+  def write(channel: WritableByteChannel): Unit = {
+    val buffer = ByteBuffer.allocate(ShareStreamHeader.SIZE)
+      .putInt(ShareStreamHeader.MAGIC)
+      .put(ShareStreamHeader.VERSION)
+      .put(threshold.toByte)
+      .put(x.toByte)
+      .putInt(chunkSize)
+      .putLong(id.getMostSignificantBits)
+      .putLong(id.getLeastSignificantBits)
+    buffer.flip()
+    ShareStreamHeader.writeFully(channel, buffer)
+  }
+}
+
+/**
+ * Reads share stream headers and provides some channel utilities.
+ */
+object ShareStreamHeader {
+
+  /** the magic number "SHSS" */
+  val MAGIC: Int = 0x53485353
+  /** the version of the format */
+  val VERSION: Byte = 1
+  /** the size of the header in bytes */
+  val SIZE: Int = 4 + 1 + 1 + 1 + 4 + 16
+
+  /**
+   * Reads a header from the given channel.
+   *
+   * @param channel the source channel
+   * @return the header
+   * @throws EOFException if the channel ends prematurely
+   */
+  def read(channel: ReadableByteChannel): ShareStreamHeader = {
+    val buffer = ByteBuffer.allocate(SIZE)
+    if (readFully(channel, buffer) < SIZE) throw new EOFException("Truncated share stream header.")
+    buffer.flip()
+    require(buffer.getInt() == MAGIC, "Not a share stream.")
+    require(buffer.get() == VERSION, "Unsupported share stream version.")
+    val threshold = buffer.get() & 0xFF
+    val x = buffer.get() & 0xFF
+    val chunkSize = buffer.getInt()
+    ShareStreamHeader(new UUID(buffer.getLong(), buffer.getLong()), threshold, x, chunkSize)
+  }
+
+  /**
+   * Reads from the channel until the buffer is full or the channel has been exhausted.
+   *
+   * @param channel the source channel
+   * @param buffer the target buffer
+   * @return the number of read bytes
+   */
+  def readFully(channel: ReadableByteChannel, buffer: ByteBuffer): Int = {
+    var count = 0
+    var read = 0
+    while (buffer.hasRemaining && read >= 0) {
+      read = channel.read(buffer)
+      if (read > 0) count = count + read
+    }
+    count
+  }
+
+  /**
+   * Writes the remaining bytes of the buffer to the channel.
+   *
+   * @param channel the target channel
+   * @param buffer the source buffer
+   */
+  def writeFully(channel: WritableByteChannel, buffer: ByteBuffer): Unit = {
+    while (buffer.hasRemaining) channel.write(buffer)
+  }
+}
\ No newline at end of file
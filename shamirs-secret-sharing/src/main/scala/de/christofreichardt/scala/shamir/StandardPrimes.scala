@@ -0,0 +1,86 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import scala.collection.immutable.TreeMap
+
+/**
+ * A registry of well-known primes keyed by their bit length. The registry comprises Mersenne primes, the primes underlying the
+ * NIST curves and some other primes from the elliptic curve literature. Since all of them are published and have been verified
+ * many times over, a `SecretSharing` instance can pick one of them instead of searching for a fresh random prime. Note that the
+ * prime modulus needn't be a secret.
+ */
+object StandardPrimes {
+
+  private val TWO = BigInt(2)
+
+  /** the registered primes keyed by bit length */
+  val primes: TreeMap[Int, BigInt] = TreeMap(
+    61 -> (TWO.pow(61) - 1),
+    64 -> (TWO.pow(64) - 59),
+    89 -> (TWO.pow(89) - 1),
+    107 -> (TWO.pow(107) - 1),
+    127 -> (TWO.pow(127) - 1),
+    128 -> (TWO.pow(128) - 159),
+    130 -> (TWO.pow(130) - 5),
+    192 -> (TWO.pow(192) - TWO.pow(64) - 1),
+    221 -> (TWO.pow(221) - 3),
+    224 -> (TWO.pow(224) - TWO.pow(96) + 1),
+    251 -> (TWO.pow(251) - 9),
+    255 -> (TWO.pow(255) - 19),
+    256 -> (TWO.pow(256) - 189),
+    382 -> (TWO.pow(382) - 105),
+    383 -> (TWO.pow(383) - 187),
+    384 -> (TWO.pow(384) - TWO.pow(128) - TWO.pow(96) + TWO.pow(32) - 1),
+    414 -> (TWO.pow(414) - 17),
+    448 -> (TWO.pow(448) - TWO.pow(224) - 1),
+    511 -> (TWO.pow(511) - 187),
+    512 -> (TWO.pow(512) - 569),
+    521 -> (TWO.pow(521) - 1),
+    607 -> (TWO.pow(607) - 1),
+    1024 -> (TWO.pow(1024) - 105),
+    1279 -> (TWO.pow(1279) - 1),
+    2203 -> (TWO.pow(2203) - 1),
+    2281 -> (TWO.pow(2281) - 1),
+    3217 -> (TWO.pow(3217) - 1),
+    4253 -> (TWO.pow(4253) - 1),
+    4423 -> (TWO.pow(4423) - 1),
+    9689 -> (TWO.pow(9689) - 1),
+    9941 -> (TWO.pow(9941) - 1),
+    11213 -> (TWO.pow(11213) - 1),
+    19937 -> (TWO.pow(19937) - 1)
+  )
+
+  /**
+   * Looks up the registered prime with the smallest bit length not below the given bit length.
+   *
+   * @param bits the minimal bit length
+   * @return the prime, if any
+   */
+  def atLeast(bits: Int): Option[BigInt] = primes.minAfter(bits).map(entry => entry._2)
+
+  /**
+   * Looks up the registered prime with exactly the given bit length.
+   *
+   * @param bits the bit length
+   * @return the prime, if any
+   */
+  def withBitLength(bits: Int): Option[BigInt] = primes.get(bits)
+}
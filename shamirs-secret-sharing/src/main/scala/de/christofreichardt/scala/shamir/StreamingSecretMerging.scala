@@ -0,0 +1,170 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.diagnosis.{AbstractTracer, TracerFactory}
+import de.christofreichardt.scala.diagnosis.Tracing
+import java.io.{EOFException, InputStream, OutputStream}
+import java.nio.ByteBuffer
+import java.nio.channels.{Channels, FileChannel, ReadableByteChannel, WritableByteChannel}
+import java.nio.file.{Path, StandardOpenOption}
+import java.util.UUID
+import scala.collection.mutable
+
+/**
+ * Recovers a secret from share streams produced by [[StreamingSecretSharing]]. The headers are read upon construction. The Lagrange weights at x == 0 and
+ * their multiplication rows are computed only once, afterwards the secret is rebuilt chunk by chunk with constant memory.
+ *
+ * @constructor Reads the headers of the given share streams. Surplus streams beyond the threshold won't be touched any further.
+ *
+ * @param sources the share streams
+ */
+class StreamingSecretMerging(val sources: IndexedSeq[ReadableByteChannel]) extends Tracing {
+
+  require(sources.nonEmpty, "No share streams.")
+
+  /** the headers of the share streams */
+  val headers: IndexedSeq[ShareStreamHeader] = sources.map(source => ShareStreamHeader.read(source))
+
+  require(headers.forall(header => header.id == headers.head.id), "Inconsistent share stream ids.")
+  require(headers.forall(header => header.threshold == headers.head.threshold && header.chunkSize == headers.head.chunkSize), "Inconsistent share stream headers.")
+
+  /** identifies the share streams belonging together */
+  val id: UUID = headers.head.id
+  /** the number of share streams required for the recovery */
+  val threshold: Int = headers.head.threshold
+  /** the maximal length of a chunk */
+  val chunkSize: Int = headers.head.chunkSize
+
+  require(headers.length >= threshold, "Too few share streams.")
+  require(pairWiseDifferent(headers.map(header => header.x)), "Share streams must be pairwise different.")
+
+  /** the Lagrange weights at x == 0 of the selected share streams */
+  val weights: IndexedSeq[Int] = GF256.weightsAtZero(headers.take(threshold).map(header => header.x))
+
+  /**
+   * Rebuilds the secret and writes it to the given channel. The channels won't be closed.
+   *
+   * @param target receives the secret
+   * @return the number of secret bytes
+   * @throws EOFException if a share stream ends prematurely
+   */
+  def mergeInto(target: WritableByteChannel): Long = {
+    withTracer("Long", this, "mergeInto(target: WritableByteChannel)") {
+      val tracer = getCurrentTracer()
+      val selected = sources.take(threshold)
+      val rows = weights.map(weight => GF256.multiplicationRow(weight))
+      val ys = IndexedSeq.fill(threshold)(Array.ofDim[Byte](chunkSize))
+      val chunk = Array.ofDim[Byte](chunkSize)
+      val lengthBuffer = ByteBuffer.allocate(4)
+
+      def readLength(source: ReadableByteChannel): Int = {
+        lengthBuffer.clear()
+        if (ShareStreamHeader.readFully(source, lengthBuffer) < 4) throw new EOFException("Truncated share stream.")
+        lengthBuffer.flip()
+        val length = lengthBuffer.getInt()
+        if (length < 0 || length > chunkSize) throw new IllegalStateException("Corrupted share stream.")
+        length
+      }
+
+      try {
+        var total = 0L
+        var length = 0
+        while ({
+          val lengths = selected.map(source => readLength(source))
+          if (lengths.exists(l => l != lengths.head)) throw new IllegalStateException("Inconsistent chunk lengths.")
+          length = lengths.head
+          length > 0
+        }) {
+          selected.indices.foreach(i => {
+            if (ShareStreamHeader.readFully(selected(i), ByteBuffer.wrap(ys(i), 0, length)) < length) throw new EOFException("Truncated share stream.")
+          })
+          GF256.combineRowsInto(rows, ys, length, chunk)
+          ShareStreamHeader.writeFully(target, ByteBuffer.wrap(chunk, 0, length))
+          total = total + length
+        }
+        tracer.out().printfIndentln("total = %d", total: java.lang.Long)
+        total
+      } finally {
+        java.util.Arrays.fill(chunk, 0.toByte)
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the secret and writes it to the given output stream. The stream won't be closed.
+   *
+   * @param out receives the secret
+   * @return the number of secret bytes
+   */
+  def mergeInto(out: OutputStream): Long = {
+    val total = mergeInto(Channels.newChannel(out))
+    out.flush()
+    total
+  }
+
+  override def toString: String = String.format("StreamingSecretMerging[id=%s, threshold=%d, chunkSize=%d, xs=(%s)]", id, threshold: Integer, chunkSize: Integer, headers.map(header => header.x).mkString(","))
+
+  override def getCurrentTracer(): AbstractTracer = TracerFactory.getInstance().getDefaultTracer
+}
+
+/**
+ * This object provides some operations to create `StreamingSecretMerging` instances.
+ */
+object StreamingSecretMerging {
+
+  /**
+   * Directly calls the `StreamingSecretMerging` primary constructor.
+   *
+   * @param sources the share streams
+   * @return the `StreamingSecretMerging` instance
+   */
+  def apply(sources: IndexedSeq[ReadableByteChannel]): StreamingSecretMerging = new StreamingSecretMerging(sources)
+
+  /**
+   * Wraps the given input streams into channels.
+   *
+   * @param ins the share streams
+   * @return the `StreamingSecretMerging` instance
+   */
+  def apply(ins: Array[InputStream]): StreamingSecretMerging = new StreamingSecretMerging(ins.toIndexedSeq.map(in => Channels.newChannel(in)))
+
+  /**
+   * Merges the given share files into the target file.
+   *
+   * @param sources the share files
+   * @param target the file receiving the secret
+   * @return the number of secret bytes
+   */
+  def merge(sources: Array[Path], target: Path): Long = {
+    val sourceChannels = mutable.ArrayBuffer.empty[FileChannel]
+    try {
+      sources.foreach(source => sourceChannels += FileChannel.open(source, StandardOpenOption.READ))
+      val targetChannel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+      try {
+        new StreamingSecretMerging(sourceChannels.toIndexedSeq).mergeInto(targetChannel)
+      } finally {
+        targetChannel.close()
+      }
+    } finally {
+      sourceChannels.foreach(channel => channel.close())
+    }
+  }
+}
\ No newline at end of file
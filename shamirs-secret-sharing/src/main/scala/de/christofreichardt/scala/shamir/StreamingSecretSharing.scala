@@ -0,0 +1,170 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.diagnosis.{AbstractTracer, TracerFactory}
+import de.christofreichardt.scala.diagnosis.Tracing
+import de.christofreichardt.scala.utils.SecureRandomProvider
+import java.io.{InputStream, OutputStream}
+import java.nio.ByteBuffer
+import java.nio.channels.{Channels, FileChannel, ReadableByteChannel, WritableByteChannel}
+import java.nio.file.{Path, StandardOpenOption}
+import java.security.SecureRandom
+import java.util.UUID
+import scala.collection.mutable
+
+/**
+ * Splits arbitrarily large secrets, e.g. key bundles or backup archives, into share streams. The source will be read in chunks of fixed size and each chunk
+ * will be shared byte-wise over GF(256) by fresh random polynomials, see [[ByteWiseSecretSharing]]. The chunk buffer, the coefficient buffers and the
+ * multiplication rows of the x-coordinates are allocated only once, hence the memory consumption doesn't depend on the size of the secret. Each share stream
+ * starts with a [[ShareStreamHeader]] followed by the chunk records. Use [[StreamingSecretMerging]] to recover the secret.
+ *
+ * @constructor Creates a new streaming secret sharing scheme with shares, threshold, chunk size and a secure random source.
+ *
+ * @param shares the number of share streams
+ * @param threshold the number of share streams required for the recovery of the secret
+ * @param chunkSize the number of secret bytes processed at once
+ * @param random the secure random source
+ */
+class StreamingSecretSharing(
+                              val shares: Int,
+                              val threshold: Int,
+                              val chunkSize: Int,
+                              val random: SecureRandom)
+  extends Tracing {
+
+  /**
+   * Creates a new streaming secret sharing scheme with the default chunk size and a default secure random source.
+   *
+   * @param shares the number of share streams
+   * @param threshold the number of share streams required for the recovery of the secret
+   */
+  def this(shares: Int, threshold: Int) = this(shares, threshold, StreamingSecretSharing.DEFAULT_CHUNK_SIZE, SecureRandomProvider.secureRandom)
+
+  require(shares >= 2 && threshold >= 2, "We need at least two shares, otherwise we wouldn't need shares at all.")
+  require(threshold <= shares, "The threshold must be less than or equal to the number of shares.")
+  require(shares < GF256.ORDER, "GF(256) provides at most 255 non-zero x-coordinates.")
+  require(chunkSize > 0, "Invalid chunk size.")
+
+  /** identifies the share streams belonging together */
+  val id: UUID = UUID.randomUUID()
+  /** The random, pairwise different and non-zero x-coordinates of the share streams */
+  val xs: IndexedSeq[Int] = new scala.util.Random(random).shuffle(Range(1, GF256.ORDER).toIndexedSeq).take(shares)
+
+  /**
+   * Splits the content of the source channel into the target channels, one share stream per target. The channels won't be closed.
+   *
+   * @param source the secret
+   * @param targets the share streams, one for each x-coordinate
+   * @return the number of secret bytes
+   */
+  def split(source: ReadableByteChannel, targets: IndexedSeq[WritableByteChannel]): Long = {
+    withTracer("Long", this, "split(source: ReadableByteChannel, targets: IndexedSeq[WritableByteChannel])") {
+      require(targets.length == shares, "Exactly one target per share is required.")
+      val tracer = getCurrentTracer()
+      targets.indices.foreach(i => ShareStreamHeader(id, threshold, xs(i), chunkSize).write(targets(i)))
+      val rows = xs.map(x => GF256.multiplicationRow(x))
+      val coefficients = IndexedSeq.fill(threshold - 1)(Array.ofDim[Byte](chunkSize))
+      val chunk = Array.ofDim[Byte](chunkSize)
+      val polynomials = coefficients :+ chunk
+      val y = Array.ofDim[Byte](chunkSize)
+      val chunkBuffer = ByteBuffer.wrap(chunk)
+      val lengthBuffer = ByteBuffer.allocate(4)
+      try {
+        var total = 0L
+        var length = 0
+        while ({
+          chunkBuffer.clear()
+          length = ShareStreamHeader.readFully(source, chunkBuffer)
+          length > 0
+        }) {
+          coefficients.foreach(c => random.nextBytes(c))
+          targets.indices.foreach(i => {
+            GF256.hornerInto(polynomials, rows(i), length, y)
+            lengthBuffer.clear()
+            lengthBuffer.putInt(length).flip()
+            ShareStreamHeader.writeFully(targets(i), lengthBuffer)
+            ShareStreamHeader.writeFully(targets(i), ByteBuffer.wrap(y, 0, length))
+          })
+          total = total + length
+        }
+        targets.foreach(target => {
+          lengthBuffer.clear()
+          lengthBuffer.putInt(0).flip()
+          ShareStreamHeader.writeFully(target, lengthBuffer)
+        })
+        tracer.out().printfIndentln("total = %d", total: java.lang.Long)
+        total
+      } finally {
+        polynomials.foreach(bytes => java.util.Arrays.fill(bytes, 0.toByte))
+        java.util.Arrays.fill(y, 0.toByte)
+      }
+    }
+  }
+
+  /**
+   * Splits the content of the input stream into the output streams, one share stream per output stream. The streams won't be closed.
+   *
+   * @param in the secret
+   * @param outs the share streams, one for each x-coordinate
+   * @return the number of secret bytes
+   */
+  def split(in: InputStream, outs: Array[OutputStream]): Long = {
+    val targets = outs.toIndexedSeq.map(out => Channels.newChannel(out))
+    val total = split(Channels.newChannel(in), targets)
+    outs.foreach(out => out.flush())
+    total
+  }
+
+  /**
+   * Splits the given file into the share files, one share stream per target file.
+   *
+   * @param source the secret file
+   * @param targets the share files, one for each x-coordinate
+   * @return the number of secret bytes
+   */
+  def split(source: Path, targets: Array[Path]): Long = {
+    val sourceChannel = FileChannel.open(source, StandardOpenOption.READ)
+    try {
+      val targetChannels = mutable.ArrayBuffer.empty[FileChannel]
+      try {
+        targets.foreach(target => targetChannels += FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        split(sourceChannel, targetChannels.toIndexedSeq)
+      } finally {
+        targetChannels.foreach(channel => channel.close())
+      }
+    } finally {
+      sourceChannel.close()
+    }
+  }
+
+  override def toString: String = String.format("StreamingSecretSharing[shares=%d, threshold=%d, chunkSize=%d, id=%s]", shares: Integer, threshold: Integer, chunkSize: Integer, id)
+
+  override def getCurrentTracer(): AbstractTracer = TracerFactory.getInstance().getDefaultTracer
+}
+
+/**
+ * Provides the defaults of the streaming secret sharing scheme.
+ */
+object StreamingSecretSharing {
+
+  /** the default chunk size (64 KiB) */
+  val DEFAULT_CHUNK_SIZE: Int = 64 * 1024
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import java.util.{Collections, LinkedHashMap}
+
+/**
+ * A bounded cache of numbers which have already passed the primality test with the given [[CERTAINTY]]. `NewtonInterpolation`, `NewtonPolynomial` and
+ * `Polynomial` instances are checking their prime modulus against this cache instead of running the Miller-Rabin test over and over again. Primes taken
+ * from the [[StandardPrimes]] registry are trusted without further testing. The least recently used entry will be evicted if the capacity has been
+ * exhausted.
+ */
+object VerifiedPrimes {
+
+  /** the maximal number of cached primes */
+  val CAPACITY = 64
+
+  private val verified: java.util.Map[BigInt, java.lang.Boolean] = Collections.synchronizedMap(
+    new LinkedHashMap[BigInt, java.lang.Boolean](CAPACITY, 0.75f, true) {
+      override protected def removeEldestEntry(eldest: java.util.Map.Entry[BigInt, java.lang.Boolean]): Boolean = this.size() > CAPACITY
+    }
+  )
+
+  /**
+   * Checks if the given candidate is a (probable) prime. Only the first check of a particular prime will actually execute the primality test.
+   *
+   * @param candidate the number to be checked
+   * @return true if the candidate is (probably) prime
+   */
+  def isPrime(candidate: BigInt): Boolean = {
+    if (verified.get(candidate) != null) true
+    else if (StandardPrimes.withBitLength(candidate.bitLength).contains(candidate)) true
+    else {
+      val prime = candidate.isProbablePrime(CERTAINTY)
+      if (prime) verified.put(candidate, java.lang.Boolean.TRUE)
+      prime
+    }
+  }
+
+  /**
+   * Records a prime which has been produced by a prime generator with the given [[CERTAINTY]] and therefore needn't be tested again.
+   *
+   * @param prime the generated prime
+   */
+  private[shamir] def register(prime: BigInt): Unit = verified.put(prime, java.lang.Boolean.TRUE)
+
+  /**
+   * Gives the number of currently cached primes.
+   *
+   * @return the number of cached primes
+   */
+  def size: Int = verified.size()
+}
@@ -0,0 +1,122 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import java.util.{Collections, LinkedHashMap}
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * A bounded cache of Lagrange basis weights at x == 0 keyed by the prime modulus and the sorted x-coordinates. Repeated recoveries from the same slices,
+ * e.g. unlocking the same keystore on every restart, need only a single dot product then. The cache never sees y-coordinates or recovered secrets, the
+ * weights depend solely on the x-coordinates and the prime, which aren't secret. The least recently used entry will be evicted if the capacity has been
+ * exhausted.
+ *
+ * @constructor Creates an empty cache with the given capacity.
+ *
+ * @param capacity the maximal number of cached weight vectors
+ */
+class WeightCache(val capacity: Int) {
+
+  require(capacity > 0, "Invalid capacity.")
+
+  private val weights: java.util.Map[(BigInt, IndexedSeq[BigInt]), IndexedSeq[BigInt]] = Collections.synchronizedMap(
+    new LinkedHashMap[(BigInt, IndexedSeq[BigInt]), IndexedSeq[BigInt]](capacity, 0.75f, true) {
+      override protected def removeEldestEntry(eldest: java.util.Map.Entry[(BigInt, IndexedSeq[BigInt]), IndexedSeq[BigInt]]): Boolean = this.size() > capacity
+    }
+  )
+  private val hitCounter = new LongAdder
+  private val missCounter = new LongAdder
+
+  /**
+   * Gives the Lagrange basis weights at x == 0 for the given x-coordinates. The weights will be computed and cached on a miss.
+   *
+   * @param xs strictly ascending x-coordinates within [0, prime)
+   * @param prime the prime modulus
+   * @return the weights in the order of the x-coordinates
+   */
+  def weightsAtZero(xs: IndexedSeq[BigInt], prime: BigInt): IndexedSeq[BigInt] = {
+    val key = (prime, xs)
+    val cached = weights.get(key)
+    if (cached != null) {
+      hitCounter.increment()
+      cached
+    } else {
+      missCounter.increment()
+      require(VerifiedPrimes.isPrime(prime), String.format("%s isn't prime.", prime))
+      require(xs.forall(x => x >= 0 && x < prime) && Range(1, xs.length).forall(i => xs(i - 1) < xs(i)), "Supporting points must be pairwise different and unambiguous.")
+      val computed = LagrangeInterpolation.weights(xs, BigInt(0), prime)
+      weights.put(key, computed)
+      computed
+    }
+  }
+
+  /**
+   * Computes the value of the interpolating polynomial at x == 0 by means of the cached weights. The supporting points are sorted by their x-coordinates
+   * to build the key, the y-coordinates enter only the dot product.
+   *
+   * @param supportingPoints some supporting points with pairwise different x-coordinates
+   * @param prime the prime modulus
+   * @return the value at x == 0
+   */
+  def valueAtZero(supportingPoints: IndexedSeq[(BigInt, BigInt)], prime: BigInt): BigInt = {
+    val sortedPoints = supportingPoints.map(point => (point._1.mod(prime), point._2)).sortBy(point => point._1)
+    LagrangeInterpolation.dotProduct(weightsAtZero(sortedPoints.map(point => point._1), prime), sortedPoints.map(point => point._2), prime)
+  }
+
+  /**
+   * Gives the number of lookups which have been served from the cache.
+   *
+   * @return the number of hits
+   */
+  def hits: Long = hitCounter.sum()
+
+  /**
+   * Gives the number of lookups which required the computation of the weights.
+   *
+   * @return the number of misses
+   */
+  def misses: Long = missCounter.sum()
+
+  /**
+   * Gives the number of currently cached weight vectors.
+   *
+   * @return the number of cached weight vectors
+   */
+  def size: Int = weights.size()
+
+  /**
+   * Evicts all cached weight vectors. The counters remain untouched.
+   */
+  def clear(): Unit = weights.clear()
+
+  override def toString: String = String.format("WeightCache[capacity=%d, size=%d, hits=%d, misses=%d]", capacity: Integer, size: Integer, hits: java.lang.Long, misses: java.lang.Long)
+}
+
+/**
+ * Holds the cache shared by all `SecretMerging` instances which haven't been given a dedicated field implementation.
+ */
+object WeightCache {
+
+  /** the capacity of the shared cache */
+  val DEFAULT_CAPACITY = 256
+
+  /** the shared cache */
+  lazy val shared: WeightCache = new WeightCache(DEFAULT_CAPACITY)
+}
\ No newline at end of file
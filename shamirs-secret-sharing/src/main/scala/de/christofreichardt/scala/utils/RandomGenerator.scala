@@ -20,6 +20,7 @@
 package de.christofreichardt.scala.utils
 
 import scala.annotation.tailrec
+import scala.collection.mutable
 import scala.util.Random
 
 /**
@@ -28,7 +29,7 @@ import scala.util.Random
 class RandomGenerator(secureRandom: java.security.SecureRandom) {
   val random = new Random(secureRandom)
   
-  def this() = this(new java.security.SecureRandom)
+  def this() = this(SecureRandomProvider.secureRandom)
   
   final def bigIntStream(numberOfBits: Int, p: BigInt): LazyList[BigInt] = {
     val next = BigInt(numberOfBits, random).mod(p)
@@ -80,9 +81,133 @@ class RandomGenerator(secureRandom: java.security.SecureRandom) {
     LazyList.cons(next, distinctIntStream(upperLimit, consumedSet + next))
   }
   
-  final def byteStream: LazyList[Byte] = {
-    val next = new Array[Byte](1)
-    this.random.nextBytes(next)
-    LazyList.cons(next(0), byteStream)
+  final def byteStream: LazyList[Byte] = LazyList.from(byteIterator)
+
+  /**
+   * Fills the given buffer with random bytes.
+   *
+   * @param buffer the buffer
+   */
+  final def nextBytes(buffer: Array[Byte]): Unit = this.random.nextBytes(buffer)
+
+  /**
+   * Draws a uniformly distributed number within [0, p). Candidates comprising the given number of bits are rejected if they fall into the incomplete
+   * last interval of length p, otherwise they are reduced (mod p). Hence the result is exactly uniformly distributed and more bits reduce the
+   * probability of a rejection.
+   *
+   * @param numberOfBits the bit length of the candidates, at least the bit length of p
+   * @param p the exclusive upper bound
+   * @return the random number
+   */
+  final def nextBigInt(numberOfBits: Int, p: BigInt): BigInt = {
+    require(p > 0 && numberOfBits >= p.bitLength, "The candidates must cover [0, p).")
+    val limit = (BigInt(1) << numberOfBits) / p * p
+    @tailrec
+    def draw: BigInt = {
+      val candidate = BigInt(numberOfBits, random)
+      if (candidate < limit) candidate.mod(p)
+      else draw
+    }
+    draw
+  }
+
+  /**
+   * Fills the given array with uniformly distributed numbers within [0, p), see [[nextBigInt]].
+   *
+   * @param values the array to be filled
+   * @param numberOfBits the bit length of the candidates, at least the bit length of p
+   * @param p the exclusive upper bound
+   */
+  final def nextBigInts(values: Array[BigInt], numberOfBits: Int, p: BigInt): Unit = {
+    var i = 0
+    while (i < values.length) {
+      values(i) = nextBigInt(numberOfBits, p)
+      i = i + 1
+    }
+  }
+
+  /**
+   * Gives the requested number of uniformly distributed numbers within [0, p), see [[nextBigInt]].
+   *
+   * @param count the number of values
+   * @param numberOfBits the bit length of the candidates, at least the bit length of p
+   * @param p the exclusive upper bound
+   * @return the random numbers
+   */
+  final def nextBigInts(count: Int, numberOfBits: Int, p: BigInt): Array[BigInt] = {
+    val values = new Array[BigInt](count)
+    nextBigInts(values, numberOfBits, p)
+    values
+  }
+
+  /**
+   * Gives the requested number of pairwise different and uniformly distributed numbers within [0, p) while skipping the excluded numbers.
+   *
+   * @param count the number of values
+   * @param numberOfBits the bit length of the candidates, at least the bit length of p
+   * @param p the exclusive upper bound
+   * @param excluded numbers which must not be chosen
+   * @return the random numbers in the order of their appearance
+   */
+  final def nextDistinctBigInts(count: Int, numberOfBits: Int, p: BigInt, excluded: Set[BigInt]): Array[BigInt] = {
+    require(BigInt(count) <= p - excluded.count(x => x >= 0 && x < p), "Not enough distinct values available.")
+    val chosen = mutable.LinkedHashSet.empty[BigInt]
+    while (chosen.size < count) {
+      val candidate = nextBigInt(numberOfBits, p)
+      if (!excluded.contains(candidate)) chosen.add(candidate)
+    }
+    chosen.toArray
   }
+
+  /**
+   * Produces uniformly distributed numbers within [0, p) without memoizing them, see [[nextBigInt]].
+   *
+   * @param numberOfBits the bit length of the candidates, at least the bit length of p
+   * @param p the exclusive upper bound
+   * @return an endless iterator
+   */
+  final def bigIntIterator(numberOfBits: Int, p: BigInt): Iterator[BigInt] = Iterator.continually(nextBigInt(numberOfBits, p))
+
+  /**
+   * Produces random integers within [0, upperLimit) without memoizing them.
+   *
+   * @param upperLimit the exclusive upper bound
+   * @return an endless iterator
+   */
+  final def intIterator(upperLimit: Int): Iterator[Int] = Iterator.continually(this.random.nextInt(upperLimit))
+
+  /**
+   * Produces random bits without memoizing them.
+   *
+   * @return an endless iterator
+   */
+  final def bitIterator: Iterator[Boolean] = Iterator.continually(this.random.nextBoolean())
+
+  /**
+   * Produces random bytes without memoizing them. The bytes are drawn in bulk into an internal buffer.
+   *
+   * @return an endless iterator
+   */
+  final def byteIterator: Iterator[Byte] = new Iterator[Byte] {
+    private val buffer = new Array[Byte](RandomGenerator.BUFFER_SIZE)
+    private var position = buffer.length
+
+    override def hasNext: Boolean = true
+
+    override def next(): Byte = {
+      if (position == buffer.length) {
+        nextBytes(buffer)
+        position = 0
+      }
+      val next = buffer(position)
+      position = position + 1
+      next
+    }
+  }
+}
+
+object RandomGenerator {
+
+  /** the size of the buffer backing the byte iterator */
+  val BUFFER_SIZE = 256
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.utils
+
+import java.security.{DrbgParameters, SecureRandom}
+import java.time.Duration
+
+/**
+ * Provides the `SecureRandom` instances used by the default constructors of the secret sharing schemes. The provider in use can be replaced by
+ * [[SecureRandomProvider.install]], this is the single injection point for the random sources.
+ */
+trait SecureRandomProvider {
+
+  /**
+   * Gives a random source suitable for the calling thread.
+   *
+   * @return the random source
+   */
+  def secureRandom: SecureRandom
+}
+
+/**
+ * Holds the installed provider. Defaults to a [[ThreadLocalSecureRandomProvider]].
+ */
+object SecureRandomProvider {
+
+  @volatile private var provider: SecureRandomProvider = new ThreadLocalSecureRandomProvider
+
+  /**
+   * Replaces the provider in use.
+   *
+   * @param secureRandomProvider the new provider
+   */
+  def install(secureRandomProvider: SecureRandomProvider): Unit = {
+    require(secureRandomProvider != null, "A provider is required.")
+    provider = secureRandomProvider
+  }
+
+  /**
+   * Gives the provider in use.
+   *
+   * @return the provider
+   */
+  def installed: SecureRandomProvider = provider
+
+  /**
+   * Gives a random source suitable for the calling thread from the provider in use.
+   *
+   * @return the random source
+   */
+  def secureRandom: SecureRandom = provider.secureRandom
+}
+
+/**
+ * Gives every thread its own DRBG instance, hence concurrent threads neither contend for the internal lock of a shared instance nor pay the costs of
+ * instantiating and seeding a fresh instance per secret sharing scheme. An instance will be reseeded from the entropy source when it is handed
+ * out again after the reseed interval has elapsed.
+ *
+ * @constructor Creates a provider with the given reseed interval and DRBG factory.
+ *
+ * @param reseedInterval the time between two reseeds of an instance
+ * @param factory creates the per-thread instances
+ */
+class ThreadLocalSecureRandomProvider(val reseedInterval: Duration, factory: () => SecureRandom) extends SecureRandomProvider {
+
+  /**
+   * Creates a provider with the default reseed interval. The instances are 256-bit DRBGs which support reseeding without prediction resistance.
+   */
+  def this() = this(ThreadLocalSecureRandomProvider.DEFAULT_RESEED_INTERVAL, () => ThreadLocalSecureRandomProvider.drbg())
+
+  require(!reseedInterval.isNegative, "The reseed interval must not be negative.")
+
+  private class Entry(val random: SecureRandom, var seeded: Long)
+
+  private val entries: ThreadLocal[Entry] = ThreadLocal.withInitial(() => new Entry(factory(), System.nanoTime()))
+
+  override def secureRandom: SecureRandom = {
+    val entry = entries.get()
+    val now = System.nanoTime()
+    if (now - entry.seeded >= reseedInterval.toNanos) {
+      try {
+        entry.random.reseed()
+      } catch {
+        case _: UnsupportedOperationException => // e.g. NativePRNG reseeds itself
+      }
+      entry.seeded = now
+    }
+    entry.random
+  }
+
+  override def toString: String = String.format("ThreadLocalSecureRandomProvider[reseedInterval=%s]", reseedInterval)
+}
+
+/**
+ * Provides the defaults of the per-thread provider.
+ */
+object ThreadLocalSecureRandomProvider {
+
+  /** the default time between two reseeds of an instance */
+  val DEFAULT_RESEED_INTERVAL: Duration = Duration.ofMinutes(10)
+
+  /**
+   * Instantiates a 256-bit DRBG which supports reseeding but not prediction resistance.
+   *
+   * @return the DRBG
+   */
+  def drbg(): SecureRandom = SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, null))
+}
\ No newline at end of file
@@ -154,4 +154,112 @@ class BinomialCombinatorSuite extends MyFunSuite {
     tracer.out().printfIndentln("flattenedSolutions.size = %d", flattenedSolutions.size)
     assert(flattenedSolutions.size == 1 + 7 + 21 + 35 + 35 + 21 + 7 + 1)
   }
+
+  testWithTracing(this, "RevolvingDoorCombinator(5, 3)") {
+    val tracer = getCurrentTracer()
+    val revolvingDoorCombinator = new RevolvingDoorCombinator(5, 3)
+    tracer.out().printfIndentln("revolvingDoorCombinator = %s", revolvingDoorCombinator)
+    val solutions = revolvingDoorCombinator.produceAll
+    solutions.foreach(solution => tracer.out().printfIndentln(solution.mkString(",")))
+    val expected = IndexedSeq(
+      IndexedSeq(0,1,2), IndexedSeq(0,2,3), IndexedSeq(1,2,3), IndexedSeq(0,1,3), IndexedSeq(0,3,4),
+      IndexedSeq(1,3,4), IndexedSeq(2,3,4), IndexedSeq(0,2,4), IndexedSeq(1,2,4), IndexedSeq(0,1,4)
+    )
+    assert(solutions == expected)
+  }
+
+  /*
+   * Every revolving door sequence must comprise all 'n choose k' combinations exactly once and consecutive combinations
+   * must differ by exactly one element.
+   */
+  testWithTracing(this, "RevolvingDoorCombinator(n, k)") {
+    val tracer = getCurrentTracer()
+    Range.inclusive(0, 10).foreach(n => {
+      Range.inclusive(0, n).foreach(k => {
+        val solutions = new RevolvingDoorCombinator(n, k).produceAll.toIndexedSeq
+        val expectedSize = new LazyBinomialCombinator(n, k).produceAll.size
+        tracer.out().printfIndentln("%d choose %d: solutions.size = %d", n, k, solutions.size)
+        assert(solutions.size == expectedSize)
+        assert(solutions.distinct.size == expectedSize)
+        assert(solutions.forall(solution => solution.size == k && solution == solution.sorted && solution.forall(i => i >= 0 && i < n)))
+        assert(solutions.sliding(2).filter(pair => pair.size == 2).forall(pair => pair(0).diff(pair(1)).size == 1))
+      })
+    })
+  }
+
+  testWithTracing(this, "LazyBinomialCombinator(10, 5).unrank") {
+    val tracer = getCurrentTracer()
+    val lazyBinomialCombinator = new LazyBinomialCombinator(10, 5)
+    tracer.out().printfIndentln("lazyBinomialCombinator = %s, size = %s", lazyBinomialCombinator, lazyBinomialCombinator.size)
+    val solutions = lazyBinomialCombinator.produceAll
+    assert(lazyBinomialCombinator.size == solutions.size)
+    solutions.zipWithIndex.foreach({
+      case (solution, rank) => assert(lazyBinomialCombinator.unrank(BigInt(rank)) == solution)
+    })
+    val caught = intercept[IllegalArgumentException] {
+      lazyBinomialCombinator.unrank(lazyBinomialCombinator.size)
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+  }
+
+  /*
+   * The IntCombinator must produce the same combinations in the same order as the LazyBinomialCombinator while updating a single array.
+   */
+  testWithTracing(this, "IntCombinator(10, 5)") {
+    val tracer = getCurrentTracer()
+    val intCombinator = new IntCombinator(10, 5)
+    tracer.out().printfIndentln("intCombinator = %s, size = %d", intCombinator, intCombinator.size)
+    val iterator = intCombinator.iterator
+    val first = iterator.next()
+    val combinations = first.toIndexedSeq +: iterator.map(combination => {
+      assert(combination eq first)
+      combination.toIndexedSeq
+    }).toIndexedSeq
+    assert(combinations == new LazyBinomialCombinator(10, 5).produceAll)
+    assert(combinations.size == intCombinator.size)
+    combinations.zipWithIndex.foreach({
+      case (combination, rank) =>
+        assert(intCombinator.rank(combination.toArray) == rank)
+        assert(intCombinator.unrank(rank).toIndexedSeq == combination)
+    })
+  }
+
+  testWithTracing(this, "IntCombinator(n, k)") {
+    val tracer = getCurrentTracer()
+    Range.inclusive(0, 10).foreach(n => {
+      Range.inclusive(0, n).foreach(k => {
+        val intCombinator = new IntCombinator(n, k)
+        val combinations = intCombinator.iterator.map(combination => combination.toIndexedSeq).toIndexedSeq
+        tracer.out().printfIndentln("%s: combinations.size = %d", intCombinator, combinations.size)
+        assert(combinations == new LazyBinomialCombinator(n, k).produceAll)
+      })
+    })
+  }
+
+  /*
+   * A parallel stream over the rank spliterator must visit every combination exactly once.
+   */
+  testWithTracing(this, "IntCombinator(30, 6).stream") {
+    val tracer = getCurrentTracer()
+    val intCombinator = new IntCombinator(30, 6)
+    tracer.out().printfIndentln("intCombinator = %s, size = %d", intCombinator, intCombinator.size)
+    val ranks = intCombinator.stream(true)
+      .mapToLong(combination => intCombinator.rank(combination))
+      .sorted()
+      .toArray
+    assert(ranks.length == intCombinator.size)
+    assert(ranks.indices.forall(i => ranks(i) == i))
+    val spliterator = intCombinator.spliterator
+    val suffix = spliterator.trySplit()
+    tracer.out().printfIndentln("spliterator.estimateSize() = %d, suffix.estimateSize() = %d", spliterator.estimateSize(), suffix.estimateSize())
+    assert(spliterator.estimateSize() + suffix.estimateSize() == intCombinator.size)
+  }
+
+  testWithTracing(this, "MetaCombinator's iterator") {
+    val tracer = getCurrentTracer()
+    val metaCombinator = new MetaCombinator(7)
+    val combinations = metaCombinator.iterator.map(combination => combination.toIndexedSeq).toIndexedSeq
+    tracer.out().printfIndentln("combinations.size = %d", combinations.size)
+    assert(combinations == metaCombinator.solutions.flatten)
+  }
 }
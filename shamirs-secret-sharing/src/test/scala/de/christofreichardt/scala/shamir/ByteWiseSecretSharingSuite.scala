@@ -0,0 +1,144 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala
+package shamir
+
+import de.christofreichardt.scala.utils.{JsonPrettyPrinter, RandomGenerator}
+import de.christofreichardt.scalatest.MyFunSuite
+import java.nio.file.Paths
+import java.security.SecureRandom
+import jakarta.json.Json
+
+class ByteWiseSecretSharingSuite extends MyFunSuite {
+  val randomGenerator = new RandomGenerator(new SecureRandom)
+
+  /*
+   * The table based multiplication must agree with the shift-and-add multiplication modulo x^8 + x^4 + x^3 + x + 1.
+   */
+  testWithTracing(this, "GF256-Arithmetic-1") {
+    val tracer = getCurrentTracer()
+
+    def multiply(a: Int, b: Int): Int = {
+      Range(0, 8).foldLeft((0, a))((accumulated, i) => {
+        val (product, shifted) = accumulated
+        val next = if ((shifted & 0x80) != 0) (shifted << 1) ^ GF256.POLYNOMIAL else shifted << 1
+        (if (((b >> i) & 1) != 0) product ^ shifted else product, next)
+      })._1
+    }
+
+    assert(Range(0, GF256.ORDER).forall(a => Range(0, GF256.ORDER).forall(b => GF256.multiply(a, b) == multiply(a, b))))
+    assert(Range(1, GF256.ORDER).forall(a => GF256.multiply(a, GF256.inverse(a)) == 1))
+    tracer.out().printfIndentln("inverse(0x53) = 0x%02X", GF256.inverse(0x53): Integer)
+    assert(GF256.inverse(0x53) == 0xCA)
+  }
+
+  testWithTracing(this, "Sharing-1 (Byte-Wise)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 8
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new ByteWiseSecretSharing(SHARES, THRESHOLD, secret)
+    tracer.out().printfIndentln("secretSharing = %s", secretSharing)
+    assert(secretSharing.sharePoints.forall(sharePoint => sharePoint._2.length == SECRET_SIZE))
+    Range.inclusive(1, SHARES).foreach(size => {
+      val ps = randomGenerator.intStream(SHARES)
+        .distinct
+        .take(size)
+        .map(index => secretSharing.sharePoints(index))
+        .toIndexedSeq
+      val secretMerging = ByteWiseSecretMerging(ps)
+      tracer.out().printfIndentln("size = %d, secret = (%s)", size: Integer, formatBytes(secretMerging.secretBytes))
+      if (size >= THRESHOLD) assert(secretMerging.secretBytes == secret)
+      else assert(secretMerging.secretBytes != secret)
+    })
+  }
+
+  /*
+   * Splitting a 4 KB blob requires neither a prime search nor big number arithmetic.
+   */
+  testWithTracing(this, "Sharing-2 (4 KB)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 4096 // Bytes
+    val SHARES = 5
+    val THRESHOLD = 3
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val start = System.nanoTime()
+    val secretSharing = new ByteWiseSecretSharing(SHARES, THRESHOLD, secret)
+    val elapsed = System.nanoTime() - start
+    tracer.out().printfIndentln("elapsed = %d µs", elapsed / 1000: java.lang.Long)
+    assert(ByteWiseSecretMerging(secretSharing.sharePoints.take(THRESHOLD)).secretBytes == secret)
+    assert(ByteWiseSecretMerging(secretSharing.sharePoints.takeRight(THRESHOLD)).secretBytes == secret)
+  }
+
+  testWithTracing(this, "Certification-1 (Byte-Wise)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 8
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new ByteWiseSecretSharing(SHARES, THRESHOLD, secret)
+    val certificationResult = secretSharing.certified
+    tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+    assert(certificationResult.verified == 70)
+    assert(certificationResult.falsified == 8 + 28 + 56)
+  }
+
+  /*
+   * Byte-wise slices are marked and will be recognized by SecretMerging.recover whereas SecretMerging.apply insists on prime field slices.
+   */
+  testWithTracing(this, "Json-1 (Byte-Wise)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 10
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new ByteWiseSecretSharing(SHARES, THRESHOLD, secret)
+    val partition = Seq(4, 2, 2, 1, 1)
+    val slices = secretSharing.partitionAsJson(partition.reverse.toArray)
+    val prettyPrinter = new JsonPrettyPrinter
+    prettyPrinter.trace(tracer, slices)
+    assert(Range(0, slices.size()).forall(i => slices.getJsonObject(i).getString("Scheme") == ByteWiseSecretSharing.SCHEME))
+    assert(SecretMerging.recover(Json.createArrayBuilder().add(slices.get(0)).build()).secretBytes == secret)
+    assert(SecretMerging.recover(Json.createArrayBuilder().add(slices.get(1)).add(slices.get(2)).build()).secretBytes == secret)
+    assert(SecretMerging.recover(Json.createArrayBuilder().add(slices.get(1)).add(slices.get(3)).add(slices.get(4)).build()).secretBytes == secret)
+    val caught = intercept[IllegalArgumentException] {
+      SecretMerging.recover(Json.createArrayBuilder().add(slices.get(1)).add(slices.get(3)).build())
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+    assertThrows[IllegalArgumentException] {
+      SecretMerging(Json.createArrayBuilder().add(slices.get(0)).build())
+    }
+  }
+
+  testWithTracing(this, "Save-Partition-1 (Byte-Wise)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 32 // Bytes
+    val SHARES = 8
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new ByteWiseSecretSharing(SHARES, THRESHOLD, secret)
+    val certificationResult = secretSharing.saveCertifiedPartition(Array(4, 2, 2), Paths.get("json", "partition-5"))
+    tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+    assert(certificationResult.falsified + certificationResult.verified == 7)
+    assert(SecretMerging.recover(Paths.get("json", "partition-5.json")).secretBytes == secret)
+    assert(SecretMerging.recover(IndexedSeq(Paths.get("json", "partition-5-1.json"), Paths.get("json", "partition-5-2.json"))).secretBytes == secret)
+  }
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scalatest.MyFunSuite
+import de.christofreichardt.scala.utils.RandomGenerator
+
+class LagrangeInterpolationSuite extends MyFunSuite {
+
+  /*
+   * Supporting points must be pairwise different and unambiguous.
+   */
+  testWithTracing(this, "Preconditions-1") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(7)
+    val violatingPreconditionPoints: IndexedSeq[(BigInt, BigInt)] = IndexedSeq((BigInt(5), BigInt(25)), (BigInt(4), BigInt(16)), (BigInt(12), BigInt(30)))
+    val caught = intercept[IllegalArgumentException] {
+      new LagrangeInterpolation(violatingPreconditionPoints, prime)
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+  }
+
+  testWithTracing(this, "Batch-Inversion-1") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(101)
+    val values = Range(1, 101).map(i => BigInt(i))
+    val inverses = LagrangeInterpolation.batchInverse(values, prime)
+    tracer.out().printfIndentln("inverses = (%s)", inverses.mkString(","))
+    assert(values.zip(inverses).forall(pair => (pair._1 * pair._2).mod(prime) == BigInt(1)))
+  }
+
+  /*
+   * P0=(3,78), P1=(22,12), P2=(27,89), P3=(31,8), P4=(72,97), prime = 101
+   *
+   * The value at x == 0 computed by the Lagrange weights must match the value of the Newton polynomial
+   * and the interpolating polynomial must contain the supporting points.
+   */
+  testWithTracing(this, "Value-At-Zero-1") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(101)
+    val ps = IndexedSeq((BigInt(3), BigInt(78)), (BigInt(22), BigInt(12)), (BigInt(27), BigInt(89)), (BigInt(31), BigInt(8)), (BigInt(72), BigInt(97)))
+    val lagrangeInterpolation = new LagrangeInterpolation(ps, prime)
+    val newtonInterpolation = new NewtonInterpolation(ps, prime)
+    tracer.out().printfIndentln("weightsAtZero = (%s)", lagrangeInterpolation.weightsAtZero.mkString(","))
+    assert(lagrangeInterpolation.weightsAtZero.foldLeft(BigInt(0))((t0, t1) => (t0 + t1).mod(prime)) == BigInt(1))
+    assert(lagrangeInterpolation.valueAtZero == newtonInterpolation.newtonPolynomial.evaluateAt(BigInt(0)))
+    assert(ps.forall(p => lagrangeInterpolation.evaluateAt(p._1) == p._2))
+  }
+
+  /*
+   * Random subsets of sharepoints, including subsets below the threshold, must give the same value at x == 0
+   * regardless of the interpolation method.
+   */
+  testWithTracing(this, "Value-At-Zero-2") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 12
+    val THRESHOLD = 6
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
+    Range.inclusive(1, SHARES).foreach(size => {
+      val ps = randomGenerator.intStream(SHARES)
+        .distinct
+        .take(size)
+        .map(i => secretSharing.sharePoints(i))
+        .toIndexedSeq
+      val lagrangeInterpolation = new LagrangeInterpolation(ps, secretSharing.prime)
+      val newtonInterpolation = new NewtonInterpolation(ps, secretSharing.prime)
+      tracer.out().printfIndentln("size = %d, valueAtZero = %s", size, lagrangeInterpolation.valueAtZero)
+      assert(lagrangeInterpolation.valueAtZero == newtonInterpolation.newtonPolynomial.evaluateAt(BigInt(0)))
+      assert((size >= THRESHOLD) == (lagrangeInterpolation.valueAtZero == secretSharing.s))
+    })
+  }
+
+  /*
+   * Swapping, adding and removing single supporting points must give the same values at x == 0 as the interpolation
+   * from scratch, both for the default and the Montgomery field.
+   */
+  testWithTracing(this, "Incremental-Interpolation-1") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 10
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
+    val fields = IndexedSeq(PrimeField(secretSharing.prime), PrimeField.montgomery(secretSharing.prime))
+    fields.foreach(field => {
+      val interpolation = new IncrementalInterpolation(secretSharing.sharePoints, secretSharing.prime, field)
+      def check(indices: IndexedSeq[Int]): Unit = {
+        val expected = new LagrangeInterpolation(indices.map(index => secretSharing.sharePoints(index)), secretSharing.prime).valueAtZero
+        tracer.out().printfIndentln("interpolation = %s", interpolation)
+        assert(interpolation.selection == indices.toSet)
+        assert(interpolation.valueAtZero == expected)
+      }
+      interpolation.reset(IndexedSeq(0, 1, 2, 3))
+      check(IndexedSeq(0, 1, 2, 3))
+      assert(interpolation.valueAtZero == secretSharing.s)
+      interpolation.swap(1, 7)
+      check(IndexedSeq(0, 2, 3, 7))
+      assert(interpolation.valueAtZero == secretSharing.s)
+      interpolation.remove(0)
+      check(IndexedSeq(2, 3, 7))
+      interpolation.add(9)
+      check(IndexedSeq(2, 3, 7, 9))
+      assert(interpolation.valueAtZero == secretSharing.s)
+      interpolation.moveTo(IndexedSeq(3, 4, 7, 9, 5))
+      check(IndexedSeq(3, 4, 7, 9, 5))
+      interpolation.moveTo(IndexedSeq(6))
+      check(IndexedSeq(6))
+    })
+  }
+}
\ No newline at end of file
@@ -184,4 +184,44 @@ class NewtonInterpolationSuite extends MyFunSuite {
     assert(ps.forall(p => coDomain.contains(p)))
     assert(coDomain.forall(p => p._2 == polynomial.evaluateAt(p._1)))
   }
+
+  /*
+   * A random polynomial of degree 29 over a 127 bit prime field is sampled at 30 points. The iteratively computed Newton
+   * coefficients are compared against the coefficients given by the defining expressions, see multiplyDifferences.
+   */
+  testWithTracing(this, "Coefficients-3 (Threshold = 30)") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val prime = StandardPrimes.withBitLength(127).get
+    val DEGREE = 29
+    val coefficients = randomGenerator.bigIntStream(256, prime)
+      .filter(c => c != BigInt(0))
+      .take(DEGREE + 1)
+      .toIndexedSeq
+    val polynomial = new Polynomial(coefficients, prime)
+    val ps = randomGenerator.bigIntStream(256, prime)
+      .filter(x => x != BigInt(0))
+      .distinct
+      .take(DEGREE + 1)
+      .map(x => (x, polynomial.evaluateAt(x)))
+      .toIndexedSeq
+    val interpolation = new NewtonInterpolation(ps, prime)
+    val cs = interpolation.computeCoefficients()
+    val xs = ps.map(p => p._1)
+    val expected = Range(0, ps.length).foldLeft(IndexedSeq.empty[BigInt])((computed, n) => {
+      if (n == 0) computed :+ ps(0)._2
+      else {
+        val subtrahend = Range(0, n)
+          .map(i => computed(i) * (if (i == 0) BigInt(1) else interpolation.multiplyDifferences(n, i - 1, xs)))
+          .foldLeft(BigInt(0))((t0, t1) => (t0 + t1).mod(prime))
+        computed :+ ((ps(n)._2 - subtrahend) * interpolation.multiplyDifferences(n, n - 1, xs).modInverse(prime)).mod(prime)
+      }
+    })
+    tracer.out().printfIndentln("cs = (%s)", cs.mkString(","))
+    assert(cs == expected)
+    val newtonPolynomial = interpolation.newtonPolynomial
+    assert(newtonPolynomial.degree == DEGREE)
+    assert(ps.forall(p => newtonPolynomial.evaluateAt(p._1) == p._2))
+    assert(newtonPolynomial.evaluateAt(BigInt(0)) == coefficients.last)
+  }
 }
\ No newline at end of file
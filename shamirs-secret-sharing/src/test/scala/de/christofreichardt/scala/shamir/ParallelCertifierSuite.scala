@@ -0,0 +1,67 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scalatest.MyFunSuite
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelCertifierSuite extends MyFunSuite {
+
+  testWithTracing(this, "All-Satisfied-1") {
+    val tracer = getCurrentTracer()
+    val executorService = Executors.newFixedThreadPool(4)
+    val certifier = new ParallelCertifier(executorService, 10, 3)
+    try {
+      val result = certifier.forall(Range(0, 10007).iterator)(i => i >= 0)
+      tracer.out().printfIndentln("certifier = %s, result = %s", certifier, result)
+      assert(result == (true, 10007L))
+      assert(certifier.forall(Iterator.empty[Int])(i => false) == (true, 0L))
+    } finally {
+      executorService.shutdown()
+    }
+  }
+
+  /*
+   * The first violation cancels the remaining work, hence far less items than available will be checked.
+   */
+  testWithTracing(this, "Early-Termination-1") {
+    val tracer = getCurrentTracer()
+    val ITEMS = 1000000
+    val produced = new AtomicInteger
+    val items = Iterator.range(0, ITEMS).map(i => {
+      produced.incrementAndGet()
+      i
+    })
+    val (satisfied, count) = ParallelCertifier().forall(items)(i => i != 100)
+    tracer.out().printfIndentln("count = %d, produced = %d", count: java.lang.Long, produced.get(): Integer)
+    assert(!satisfied)
+    assert(count <= produced.get())
+    assert(produced.get() < ITEMS)
+  }
+
+  testWithTracing(this, "Exception-1") {
+    val tracer = getCurrentTracer()
+    val caught = intercept[ArithmeticException] {
+      ParallelCertifier().forall(Range(0, 1000).iterator)(i => BigInt(i).modInverse(BigInt(7)) >= 0)
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+  }
+}
\ No newline at end of file
@@ -76,4 +76,55 @@ class PolynomialSuite extends MyFunSuite {
       .map(x => (x, polynomial.evaluateAt(x)))
     tracer.out().printfIndentln("points = %s", points.mkString(","))  
   }
+
+  testWithTracing(this, "Verified-Primes-1") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(89)
+    assert(VerifiedPrimes.isPrime(prime))
+    assert(VerifiedPrimes.isPrime(prime)) // answered by the cache
+    assert(!VerifiedPrimes.isPrime(BigInt(91)))
+    assert(VerifiedPrimes.isPrime(StandardPrimes.withBitLength(521).get))
+    tracer.out().printfIndentln("VerifiedPrimes.size = %d", VerifiedPrimes.size)
+    assert(VerifiedPrimes.size <= VerifiedPrimes.CAPACITY)
+  }
+
+  /*
+   * The Horner scheme must agree with the evaluation of the canonical form term by term.
+   */
+  testWithTracing(this, "Evaluation-5 (Horner)") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val prime = StandardPrimes.withBitLength(127).get
+    val DEGREE = 20
+    val coefficients = randomGenerator.bigIntStream(256, prime).take(DEGREE + 1).toIndexedSeq
+    val polynomial = new Polynomial(coefficients, prime)
+    tracer.out().printfIndentln("polynomial = %s", polynomial)
+    randomGenerator.bigIntStream(256, prime)
+      .take(10)
+      .foreach(x => {
+        val expected = Range.inclusive(0, polynomial.degree)
+          .map(i => (polynomial.a(i) * x.modPow(polynomial.degree - i, prime)).mod(prime))
+          .foldLeft(BigInt(0))((t0, t1) => (t0 + t1).mod(prime))
+        assert(polynomial.evaluateAt(x) == expected)
+        assert(polynomial.evaluateWith(Polynomial.powers(x, polynomial.degree, prime)) == expected)
+      })
+  }
+
+  testWithTracing(this, "Batch-Evaluation-1") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(89)
+    val polynomials = IndexedSeq(
+      new Polynomial(IndexedSeq(BigInt(23), BigInt(15), BigInt(32), BigInt(7)), prime),
+      new Polynomial(IndexedSeq(BigInt(5), BigInt(12), BigInt(0)), prime),
+      new Polynomial(IndexedSeq(BigInt(0)), prime)
+    )
+    val xs = Range(0, 89).map(x => BigInt(x))
+    val evaluations = Polynomial.evaluateAll(polynomials, xs)
+    assert(evaluations.length == polynomials.length)
+    polynomials.zip(evaluations).foreach({
+      case (polynomial, ys) =>
+        tracer.out().printfIndentln("polynomial = %s", polynomial)
+        assert(xs.map(x => polynomial.evaluateAt(x)) == ys)
+    })
+  }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala.shamir
+
+import de.christofreichardt.scalatest.MyFunSuite
+import de.christofreichardt.scala.utils.RandomGenerator
+
+class PrimeFieldSuite extends MyFunSuite {
+
+  val PRIMES: IndexedSeq[BigInt] = IndexedSeq(
+    BigInt(3),
+    BigInt(101),
+    BigInt("4294967291"), // 2^32 - 5
+    StandardPrimes.withBitLength(61).get,
+    StandardPrimes.withBitLength(64).get,
+    StandardPrimes.withBitLength(192).get,
+    StandardPrimes.withBitLength(521).get,
+    BigInt(200, CERTAINTY, new scala.util.Random)
+  )
+
+  /*
+   * The Montgomery field must agree with the BigInt field on random operands, including the edge values 0, 1 and prime - 1.
+   */
+  testWithTracing(this, "Montgomery-Arithmetic-1") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val TESTS = 250
+    PRIMES.foreach(prime => {
+      val montgomeryField = new MontgomeryField(prime)
+      val bigIntField = new BigIntField(prime)
+      tracer.out().printfIndentln("montgomeryField = %s", montgomeryField)
+      val operands = (IndexedSeq(BigInt(0), BigInt(1), prime - 1) ++ randomGenerator.bigIntStream(prime.bitLength + 8, prime).take(TESTS)).zip(
+        IndexedSeq(prime - 1, BigInt(1), prime - 1) ++ randomGenerator.bigIntStream(prime.bitLength + 8, prime).take(TESTS))
+      operands.foreach(operand => {
+        val (a, b) = operand
+        val (x, y) = (montgomeryField.element(a), montgomeryField.element(b))
+        assert(montgomeryField.toBigInt(x) == a)
+        assert(montgomeryField.toBigInt(montgomeryField.add(x, y)) == bigIntField.add(a, b))
+        assert(montgomeryField.toBigInt(montgomeryField.subtract(x, y)) == bigIntField.subtract(a, b))
+        assert(montgomeryField.toBigInt(montgomeryField.multiply(x, y)) == bigIntField.multiply(a, b))
+        if (b != BigInt(0)) assert(montgomeryField.toBigInt(montgomeryField.inverse(y)) == bigIntField.inverse(b))
+      })
+      assert(montgomeryField.toBigInt(montgomeryField.one) == BigInt(1))
+      assert(montgomeryField.toBigInt(montgomeryField.zero) == BigInt(0))
+    })
+  }
+
+  testWithTracing(this, "Montgomery-In-Place-1") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val prime = StandardPrimes.withBitLength(256).get
+    val field = new MontgomeryField(prime)
+    val a = randomGenerator.bigIntStream(prime.bitLength, prime).head
+    val b = randomGenerator.bigIntStream(prime.bitLength, prime).head
+    val x = field.element(a)
+    field.multiplyInto(x, field.element(b), x)
+    assert(field.toBigInt(x) == (a * b).mod(prime))
+    field.addInto(x, x, x)
+    assert(field.toBigInt(x) == (BigInt(2) * a * b).mod(prime))
+    field.subtractInto(x, field.element(a), x)
+    tracer.out().printfIndentln("x = %s", field.toBigInt(x))
+    assert(field.toBigInt(x) == (BigInt(2) * a * b - a).mod(prime))
+  }
+
+  testWithTracing(this, "Batch-Inversion-2 (Montgomery)") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(101)
+    val field = new MontgomeryField(prime)
+    val values = Range(1, 101).map(i => BigInt(i))
+    val inverses = field.batchInverse(values.map(value => field.element(value))).map(inverse => field.toBigInt(inverse))
+    tracer.out().printfIndentln("inverses = (%s)", inverses.mkString(","))
+    assert(inverses == LagrangeInterpolation.batchInverse(values, prime))
+  }
+
+  /*
+   * Evaluations, interpolations and recoveries must give the same results regardless of the field implementation.
+   */
+  testWithTracing(this, "Field-Independence-1") {
+    val tracer = getCurrentTracer()
+    val randomGenerator = new RandomGenerator
+    val SECRET_SIZE = 32 // Bytes
+    val SHARES = 12
+    val THRESHOLD = 5
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
+    val field = PrimeField.montgomery(secretSharing.prime)
+    tracer.out().printfIndentln("field = %s", field)
+    val polynomial = new Polynomial(secretSharing.polynomial.coefficients, secretSharing.prime, field)
+    assert(secretSharing.sharePoints.forall(sharePoint => polynomial.evaluateAt(sharePoint._1) == sharePoint._2))
+    val sharePoints = secretSharing.sharePoints.take(THRESHOLD)
+    val newtonInterpolation = new NewtonInterpolation(sharePoints, secretSharing.prime)
+    assert(new NewtonInterpolation(sharePoints, secretSharing.prime, field).computeCoefficients() == newtonInterpolation.computeCoefficients())
+    val lagrangeInterpolation = new LagrangeInterpolation(sharePoints, secretSharing.prime, field)
+    assert(lagrangeInterpolation.weightsAtZero == LagrangeInterpolation.weights(sharePoints.map(p => p._1), BigInt(0), secretSharing.prime))
+    assert(secretSharing.sharePoints.forall(sharePoint => lagrangeInterpolation.evaluateAt(sharePoint._1) == sharePoint._2))
+    val secretMerging = SecretMerging(sharePoints, secretSharing.prime, field)
+    assert(secretMerging.secretBytes == secret)
+    assert(SecretMerging(sharePoints.take(THRESHOLD - 1), secretSharing.prime, field).s == SecretMerging(sharePoints.take(THRESHOLD - 1), secretSharing.prime).s)
+  }
+}
\ No newline at end of file
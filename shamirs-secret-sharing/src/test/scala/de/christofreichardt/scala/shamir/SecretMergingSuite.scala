@@ -24,7 +24,7 @@ import de.christofreichardt.scala.combinations.{LazyBinomialCombinator, MetaComb
 import de.christofreichardt.scala.utils.{JsonPrettyPrinter, RandomGenerator}
 import de.christofreichardt.scalatest.MyFunSuite
 import java.nio.charset.StandardCharsets
-import java.nio.file.Paths
+import java.nio.file.{Files, Paths}
 import java.security.SecureRandom
 import jakarta.json.Json
 import scala.jdk.CollectionConverters
@@ -381,9 +381,70 @@ class SecretMergingSuite extends MyFunSuite {
     tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
     val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
     tracer.out().printfIndentln("secretSharing = %s", secretSharing)
+    tracer.out().printfIndentln("exhaustivelyCertified = %s", secretSharing.exhaustivelyCertified)
+    assert(secretSharing.exhaustivelyCertified.falsified == 298) // '12 choose 1' + '12 choose 2' + '12 choose 3' = 12 + 66 + 220 = 298
+    assert(secretSharing.exhaustivelyCertified.verified == 495) //'12 choose 4' = 495
+  }
+
+  /*
+   * The analytic certification must give the same counts as the exhaustive certification without merging every combination.
+   */
+  testWithTracing(this, "Analytic-Certification-1") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(12, 4, secret)
     tracer.out().printfIndentln("certified = %s", secretSharing.certified)
-    assert(secretSharing.certified.falsified == 298) // '12 choose 1' + '12 choose 2' + '12 choose 3' = 12 + 66 + 220 = 298
-    assert(secretSharing.certified.verified == 495) //'12 choose 4' = 495
+    assert(secretSharing.certified == secretSharing.exhaustivelyCertified)
+    val largeSecretSharing = new SecretSharing(40, 20, secret)
+    tracer.out().printfIndentln("certified = %s", largeSecretSharing.certified)
+    assert(largeSecretSharing.certified.falsified == 480832549477L) // '40 choose 1' + ... + '40 choose 19'
+    assert(largeSecretSharing.certified.verified == 137846528820L) // '40 choose 20'
+  }
+
+  /*
+   * The sampling certification must reach the desired error bound within the time budget if there are only a few hundred combinations.
+   */
+  testWithTracing(this, "Sampling-Certification-1") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(12, 4, secret)
+    val sampler = new SamplingCertifier(0.99, 0.01, java.time.Duration.ofMinutes(1), secretSharing.random)
+    tracer.out().printfIndentln("sampler = %s", sampler)
+    val certificationResult = secretSharing.certifyBySampling(sampler)
+    tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+    assert(certificationResult.verified == sampler.requiredSamples)
+    assert(certificationResult.falsified == sampler.requiredSamples)
+    assert(certificationResult.errorBound > 0.0 && certificationResult.errorBound <= 0.01)
+    val exhaustedSampler = new SamplingCertifier(0.99, 0.01, java.time.Duration.ZERO, secretSharing.random)
+    val caught = intercept[AssertionError] {
+      secretSharing.certifyBySampling(exhaustedSampler)
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+  }
+
+  /*
+   * The certification with a fixed thread pool and small batches must give the same counts as the default certification.
+   */
+  testWithTracing(this, "Parallel-Certification-1") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 12
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
+    val executorService = java.util.concurrent.Executors.newFixedThreadPool(4)
+    try {
+      val certificationResult = secretSharing.certify(new ParallelCertifier(executorService, 7, 4))
+      tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+      assert(certificationResult.falsified == 298)
+      assert(certificationResult.verified == 495)
+    } finally {
+      executorService.shutdown()
+    }
   }
 
   testWithTracing(this, "Slices-Certification-1") {
@@ -426,6 +487,125 @@ class SecretMergingSuite extends MyFunSuite {
     assert(certificationResult.verified + certificationResult.falsified == 127) // '7 choose 1' + '7 choose 2' + '7 choose 3' + '7 choose 4' + '7 choose 5' + '7 choose 6' + '7 choose 7' == 7 + 21 + 35 +35 + 21 + 7 + 1 == 127
   }
 
+  /*
+   * The analysis of the access structure must give the same counts as the exhaustive certification of the partition.
+   */
+  testWithTracing(this, "Slices-Certification-2") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(12, 4, secret)
+    val partition = secretSharing.sharePointPartition(Seq(4, 2, 2, 1, 1, 1, 1))
+    val certificationResult = secretSharing.certifySharePointPartition(partition)
+    val exhaustiveCertificationResult = secretSharing.certifySharePointPartitionExhaustively(partition)
+    tracer.out().printfIndentln("certificationResult = %s, exhaustiveCertificationResult = %s", certificationResult, exhaustiveCertificationResult)
+    assert(certificationResult == exhaustiveCertificationResult)
+    val accessStructure = new AccessStructure(IndexedSeq(3, 1, 1, 1), 3)
+    tracer.out().printfIndentln("accessStructure = %s, minimalAuthorized = %s", accessStructure, accessStructure.minimalAuthorized(AccessStructure.DEFAULT_REPRESENTATIVES))
+    assert(accessStructure.minimalAuthorized(AccessStructure.DEFAULT_REPRESENTATIVES) == IndexedSeq(IndexedSeq(0), IndexedSeq(1, 2, 3)))
+    assert(accessStructure.minimalAuthorized(1) == IndexedSeq(IndexedSeq(0)))
+    assert(accessStructure.unauthorizedCount == 6 && accessStructure.authorizedCount == 9)
+  }
+
+  /*
+   * A partition comprising 16 slices, the counts are checked against all 2^16 coalitions given as bitmasks.
+   */
+  testWithTracing(this, "Slices-Certification-3") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 20
+    val THRESHOLD = 5
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
+    val partitionInstruction = Seq(2, 2, 2, 2) ++ Seq.fill(12)(1) // 16 slices
+    val partition = secretSharing.sharePointPartition(partitionInstruction)
+    val certificationResult = secretSharing.certifySharePointPartition(partition)
+    tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+    val sizes = partition.map(slice => slice.length).toIndexedSeq
+    val coalitionSizes = Range(1, 1 << sizes.length).map(mask => sizes.indices.filter(i => (mask & (1 << i)) != 0).map(i => sizes(i)).sum)
+    assert(certificationResult.verified == coalitionSizes.count(size => size >= THRESHOLD))
+    assert(certificationResult.falsified == coalitionSizes.count(size => size < THRESHOLD))
+  }
+
+  /*
+   * A partition comprising 40 slices of size 1 with threshold 20 has '40 choose 20' minimal authorized coalitions. Only a bounded number of them
+   * must be searched for.
+   */
+  testWithTracing(this, "Slices-Certification-4") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 40
+    val THRESHOLD = 20
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret)
+    val partition = secretSharing.sharePointPartition(Seq.fill(SHARES)(1))
+    val accessStructure = new AccessStructure(partition.map(slice => slice.length).toIndexedSeq, THRESHOLD)
+    val (authorized, unauthorized) = accessStructure.representatives(AccessStructure.DEFAULT_REPRESENTATIVES)
+    assert(authorized.length == AccessStructure.DEFAULT_REPRESENTATIVES && authorized.forall(coalition => coalition.length == THRESHOLD))
+    assert(unauthorized.nonEmpty && unauthorized.forall(coalition => coalition.length == THRESHOLD - 1))
+    val certificationResult = secretSharing.certifySharePointPartition(partition)
+    tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+    assert(certificationResult.verified == 618679078298L) // '40 choose 20' + ... + '40 choose 40'
+    assert(certificationResult.falsified == 480832549477L) // '40 choose 1' + ... + '40 choose 19'
+  }
+
+  /*
+   * A certification job is split into three shards processed independently. The processing of the second shard is interrupted at its first checkpoint
+   * and resumed from there.
+   * Merging the checkpoints must give the same counts as the exhaustive certification.
+   */
+  testWithTracing(this, "Certification-Job-1") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(12, 4, secret)
+    val directory = Files.createTempDirectory("certification")
+    try {
+      secretSharing.certificationJob.save(directory.resolve("job.json"))
+      val job = CertificationJob.read(directory.resolve("job.json"))
+      tracer.out().printfIndentln("job = %s", job)
+      assert(job.size == 12 + 66 + 220 + 495)
+      assert(!job.toJson.toString.contains(secretSharing.s.toString))
+      val shards = job.shards(3)
+      tracer.out().printfIndentln("shards = %s", shards)
+      val checkpoints = shards.indices.map(i => directory.resolve("checkpoint-" + i + ".json"))
+      Thread.currentThread().interrupt()
+      val interruption = intercept[InterruptedException] {
+        job.process(shards(1), checkpoints(1), 100)
+      }
+      tracer.out().printfIndentln("interruption.getMessage = %s", interruption.getMessage)
+      assert(!Thread.currentThread().isInterrupted)
+      val recorded = CertificationJob.Progress.read(checkpoints(1))
+      tracer.out().printfIndentln("recorded = %s", recorded)
+      assert(!recorded.completed && recorded.next == shards(1).from + 100)
+      shards.indices.foreach(i => {
+        val progress = job.process(shards(i), checkpoints(i), 100)
+        tracer.out().printfIndentln("progress = %s", progress)
+        assert(progress.completed)
+      })
+      val certificationResult = secretSharing.mergeCertification(checkpoints)
+      tracer.out().printfIndentln("certificationResult = %s", certificationResult)
+      assert(certificationResult.falsified == 298)
+      assert(certificationResult.verified == 495)
+      val caught = intercept[IllegalArgumentException] {
+        secretSharing.mergeCertification(checkpoints.take(2))
+      }
+      tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+    } finally {
+      val paths = Files.list(directory)
+      try {
+        paths.forEach(path => Files.delete(path))
+      } finally {
+        paths.close()
+      }
+      Files.delete(directory)
+    }
+  }
+
   /*
    * A password containing several characters from the range 0080–00FF (Latin-1 Supplement), in particular
    * some german umlauts. The sharing and merging algorithms are defaulting to UTF-8 when encoding respective
@@ -451,4 +631,200 @@ class SecretMergingSuite extends MyFunSuite {
     tracer.out().printfIndentln("recoveredPassword = %1$s, UTF-8(%1$s) = %2$s, UTF-16(%1$s) = %3$s", recoveredPassword, formatBytes(recoveredPassword.getBytes(StandardCharsets.UTF_8)), formatBytes(password.getBytes(StandardCharsets.UTF_16)))
     assert(password == recoveredPassword)
   }
+
+  /*
+   * Two of three multi-secret slices must recover all secrets of a batch. Plain slices of independent schemes can be merged within the same call.
+   */
+  testWithTracing(this, "Batch-Merging-1") {
+    val tracer = getCurrentTracer()
+    val SECRETS = 200
+    val SHARES = 6
+    val THRESHOLD = 4
+    val secrets = Range(0, SECRETS).map(i => (String.format("secret-%d", i: Integer), String.format("password-%d", i: Integer).getBytes(StandardCharsets.UTF_8).toIndexedSeq))
+    val batchSecretSharing = new BatchSecretSharing(SHARES, THRESHOLD, secrets)
+    tracer.out().printfIndentln("batchSecretSharing = %s", batchSecretSharing)
+    val slices = batchSecretSharing.partitionAsJson(Array(2, 2, 2))
+    val chosenSlices = Json.createArrayBuilder()
+      .add(slices.getJsonObject(2))
+      .add(slices.getJsonObject(0))
+      .build()
+    val recovered = BatchSecretMerging(chosenSlices)
+    assert(recovered.size == SECRETS)
+    secrets.foreach({
+      case (id, secret) => assert(recovered(id).secretBytes == secret)
+    })
+    val batchSecretMerging = BatchSecretMerging(batchSecretSharing.xs.take(THRESHOLD), batchSecretSharing.prime)
+    assert(batchSecretMerging.weightsAtZero == new LagrangeInterpolation(batchSecretSharing.sharePoints(secrets.head._1).take(THRESHOLD), batchSecretSharing.prime).weightsAtZero)
+    val secretSharings = IndexedSeq(new SecretSharing(SHARES, THRESHOLD, "first-password"), new SecretSharing(SHARES, THRESHOLD, "second-password"))
+    val plainSlices = Json.createArrayBuilder()
+    secretSharings.foreach(secretSharing => secretSharing.partitionAsJson(Array(3, 3)).forEach(slice => plainSlices.add(slice)))
+    val passwords = BatchSecretMerging.passwords(BatchSecretMerging(plainSlices.build()))
+    assert(new String(passwords.get(secretSharings(0).id)) == "first-password")
+    assert(new String(passwords.get(secretSharings(1).id)) == "second-password")
+  }
+
+  /*
+   * Recoveries from the same x-coordinates must be served from the cache regardless of the order of the shares. The least recently used weights
+   * must be evicted first.
+   */
+  testWithTracing(this, "Weight-Cache-1") {
+    val tracer = getCurrentTracer()
+    val SHARES = 8
+    val THRESHOLD = 4
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, "The-Secret-Password")
+    val weightCache = new WeightCache(2)
+    def merge(points: IndexedSeq[(BigInt, BigInt)]): SecretMerging = new SecretMerging(points, secretSharing.prime, PrimeField(secretSharing.prime), Some(weightCache))
+    val first = secretSharing.sharePoints.take(THRESHOLD)
+    val second = secretSharing.sharePoints.drop(THRESHOLD)
+    assert(merge(first).secretBytes == secretSharing.secretBytes)
+    assert(merge(first.reverse).secretBytes == secretSharing.secretBytes)
+    assert(weightCache.hits == 1 && weightCache.misses == 1)
+    assert(merge(second).secretBytes == secretSharing.secretBytes)
+    assert(merge(first).secretBytes == secretSharing.secretBytes)
+    assert(weightCache.hits == 2 && weightCache.misses == 2 && weightCache.size == 2)
+    assert(merge(IndexedSeq(first(0), first(1), second(0), second(1))).secretBytes == secretSharing.secretBytes)
+    assert(merge(first).secretBytes == secretSharing.secretBytes)
+    assert(merge(second).secretBytes == secretSharing.secretBytes)
+    tracer.out().printfIndentln("weightCache = %s", weightCache)
+    assert(weightCache.hits == 3 && weightCache.misses == 4 && weightCache.size == 2)
+    assert(merge(first.take(THRESHOLD - 1)).secretBytes != secretSharing.secretBytes)
+    val hits = WeightCache.shared.hits
+    SecretMerging(first, secretSharing.prime)
+    SecretMerging(first, secretSharing.prime)
+    assert(WeightCache.shared.hits > hits)
+  }
+
+  /*
+   * Up to (n - k)/2 tampered shares must be detected and corrected without trying combinations of shares. A tampered slice must be reported
+   * by means of its share points.
+   */
+  testWithTracing(this, "Robust-Merging-1") {
+    val tracer = getCurrentTracer()
+    val SHARES = 12
+    val THRESHOLD = 4
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, "The-Secret-Password")
+    val tampered = IndexedSeq(1, 5, 6, 10)
+    val sharePoints = secretSharing.sharePoints.indices.map(i => {
+      val point = secretSharing.sharePoints(i)
+      if (tampered.contains(i)) (point._1, (point._2 + i + 1).mod(secretSharing.prime))
+      else point
+    })
+    val robustSecretMerging = RobustSecretMerging(sharePoints, secretSharing.prime, THRESHOLD)
+    tracer.out().printfIndentln("robustSecretMerging = %s", robustSecretMerging)
+    assert(robustSecretMerging.maxErrors == tampered.length)
+    assert(robustSecretMerging.secretBytes == secretSharing.secretBytes)
+    assert(robustSecretMerging.inconsistentIndices == tampered)
+    assert(RobustSecretMerging(secretSharing.sharePoints, secretSharing.prime, THRESHOLD).isConsistent)
+    val caught = intercept[IllegalArgumentException] {
+      RobustSecretMerging(sharePoints.updated(0, (sharePoints(0)._1, sharePoints(0)._2 + 1)), secretSharing.prime, THRESHOLD)
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+    val slices = secretSharing.partitionAsJson(Array(4, 4, 4))
+    val slice = slices.getJsonObject(1)
+    val sharePoint = slice.getJsonArray("SharePoints").getJsonObject(0).getJsonObject("SharePoint")
+    val tamperedPoint = (BigInt(sharePoint.getJsonNumber("x").bigIntegerValue()), BigInt(sharePoint.getJsonNumber("y").bigIntegerValue()) + 1)
+    val tamperedSharePoints = Json.createArrayBuilder(slice.getJsonArray("SharePoints"))
+      .set(0, Json.createObjectBuilder().add("SharePoint", Json.createObjectBuilder().add("x", tamperedPoint._1.bigInteger).add("y", tamperedPoint._2.bigInteger)))
+      .build()
+    val tamperedSlice = Json.createObjectBuilder(slice).add("SharePoints", tamperedSharePoints).build()
+    val recovered = SecretMerging.robust(Json.createArrayBuilder().add(slices.get(0)).add(tamperedSlice).add(slices.get(2)).build())
+    assert(new String(recovered.password) == "The-Secret-Password")
+    assert(recovered.inconsistentSharePoints == IndexedSeq(tamperedPoint))
+  }
+
+  /*
+   * The secret must become available as soon as the threshold has been reached. Further shares must be checked against the interpolating polynomial.
+   */
+  testWithTracing(this, "Incremental-Merging-1") {
+    val tracer = getCurrentTracer()
+    val SHARES = 8
+    val THRESHOLD = 4
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, "The-Secret-Password")
+    val incrementalSecretMerging = new IncrementalSecretMerging(secretSharing.prime, THRESHOLD)
+    secretSharing.sharePoints.take(THRESHOLD - 1).foreach(sharePoint => {
+      assert(incrementalSecretMerging.addSharePoint(sharePoint))
+      assert(!incrementalSecretMerging.isComplete)
+    })
+    val caught = intercept[IllegalStateException] {
+      incrementalSecretMerging.secret
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+    assert(incrementalSecretMerging.addSharePoint(secretSharing.sharePoints(THRESHOLD - 1)))
+    assert(incrementalSecretMerging.isComplete)
+    assert(incrementalSecretMerging.secret.secretBytes == secretSharing.secretBytes)
+    assert(incrementalSecretMerging.addSharePoint(secretSharing.sharePoints(THRESHOLD)))
+    val tampered = (secretSharing.sharePoints(THRESHOLD + 1)._1, secretSharing.sharePoints(THRESHOLD + 1)._2 + 1)
+    assert(!incrementalSecretMerging.addSharePoint(tampered))
+    assert(!incrementalSecretMerging.addSharePoint(tampered))
+    assert(incrementalSecretMerging.addSharePoint(secretSharing.sharePoints(0)))
+    tracer.out().printfIndentln("incrementalSecretMerging = %s", incrementalSecretMerging)
+    assert(incrementalSecretMerging.inconsistentSharePoints == IndexedSeq(tampered))
+    assert(incrementalSecretMerging.consistentSharePoints.length == THRESHOLD + 1)
+    assert(incrementalSecretMerging.secret.secretBytes == secretSharing.secretBytes)
+
+    val slices = secretSharing.partitionAsJson(Array(2, 3, 3))
+    val sliceMerging = IncrementalSecretMerging(slices.getJsonObject(0))
+    assert(!sliceMerging.isComplete)
+    assert(sliceMerging.addSlice(slices.getJsonObject(1)).isEmpty)
+    assert(sliceMerging.isComplete && sliceMerging.count == THRESHOLD)
+    assert(new String(sliceMerging.secret.password) == "The-Secret-Password")
+    assert(sliceMerging.addSlice(slices.getJsonObject(2)).isEmpty)
+    assert(sliceMerging.partitionId.contains(secretSharing.id))
+    val sharePoints = BatchSecretMerging.sharePoints(slices.getJsonObject(2).getJsonArray("SharePoints"))
+    val badSharePoints = Json.createArrayBuilder()
+    sharePoints.foreach(sharePoint => badSharePoints.add(Json.createObjectBuilder()
+      .add("SharePoint", Json.createObjectBuilder()
+        .add("x", sharePoint._1.bigInteger)
+        .add("y", (sharePoint._2 + 1).bigInteger))))
+    val badSlice = Json.createObjectBuilder(slices.getJsonObject(2)).add("SharePoints", badSharePoints.build()).build()
+    val badSharePointsAsSeq = sharePoints.map(sharePoint => (sharePoint._1, sharePoint._2 + 1))
+    assert(sliceMerging.addSlice(badSlice) == badSharePointsAsSeq)
+    assert(sliceMerging.addSlice(badSlice) == badSharePointsAsSeq)
+    assert(sliceMerging.inconsistentSharePoints == badSharePointsAsSeq)
+  }
+
+  /*
+   * A lost slice must be recovered at its former x-coordinates from the remaining slices. Replacement shares at fresh x-coordinates must merge together
+   * with the remaining slices.
+   */
+  testWithTracing(this, "Share-Repair-1") {
+    val tracer = getCurrentTracer()
+    val SHARES = 8
+    val THRESHOLD = 4
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, "The-Secret-Password")
+    val slices = secretSharing.partitionAsJson(Array(2, 3, 3))
+    val remainingSlices = Json.createArrayBuilder()
+      .add(slices.getJsonObject(1))
+      .add(slices.getJsonObject(2))
+      .build()
+    val lostXs = BatchSecretMerging.sharePoints(slices.getJsonObject(0).getJsonArray("SharePoints")).map(sharePoint => sharePoint._1)
+    val repairedSlice = ShareRepair(remainingSlices, lostXs)
+    tracer.out().printfIndentln("repairedSlice = %s", repairedSlice)
+    assert(repairedSlice == slices.getJsonObject(0))
+    val knownXs = secretSharing.sharePoints.map(sharePoint => sharePoint._1).toSet
+    val freshXs = randomGenerator.nextDistinctBigInts(2, secretSharing.prime.bitLength, secretSharing.prime, knownXs + BigInt(0)).toIndexedSeq
+    val replacementSlice = ShareRepair(remainingSlices, freshXs)
+    val mixedSlices = Json.createArrayBuilder()
+      .add(replacementSlice)
+      .add(slices.getJsonObject(1))
+      .build()
+    assert(new String(SecretMerging(mixedSlices).password) == "The-Secret-Password")
+    assertThrows[IllegalArgumentException] {
+      ShareRepair(remainingSlices, IndexedSeq(BigInt(0)))
+    }
+    assertThrows[IllegalArgumentException] {
+      ShareRepair(remainingSlices, IndexedSeq(BatchSecretMerging.sharePoints(slices.getJsonObject(1).getJsonArray("SharePoints")).head._1))
+    }
+
+    val secrets = Range(0, 50).map(i => (String.format("secret-%d", i: Integer), String.format("password-%d", i: Integer).getBytes(StandardCharsets.UTF_8).toIndexedSeq))
+    val batchSecretSharing = new BatchSecretSharing(6, THRESHOLD, secrets)
+    val batchSlices = batchSecretSharing.partitionAsJson(Array(2, 2, 2))
+    val remainingBatchSlices = Json.createArrayBuilder()
+      .add(batchSlices.getJsonObject(0))
+      .add(batchSlices.getJsonObject(1))
+      .build()
+    val lostBatchXs = BatchSecretMerging.sharePoints(batchSlices.getJsonObject(2).getJsonArray(BatchSecretSharing.SECRETS).getJsonObject(0).getJsonArray("SharePoints"))
+      .map(sharePoint => sharePoint._1)
+    assert(ShareRepair(remainingBatchSlices, lostBatchXs) == batchSlices.getJsonObject(2))
+  }
 }
\ No newline at end of file
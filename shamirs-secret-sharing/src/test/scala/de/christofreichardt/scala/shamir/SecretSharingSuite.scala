@@ -21,11 +21,12 @@ package de.christofreichardt.scala
 package shamir
 
 import de.christofreichardt.diagnosis.TracerFactory
-import de.christofreichardt.scala.utils.RandomGenerator
+import de.christofreichardt.scala.utils.{RandomGenerator, SecureRandomProvider, ThreadLocalSecureRandomProvider}
 import de.christofreichardt.scalatest.MyFunSuite
 import java.nio.charset.StandardCharsets
 import java.nio.file.{Files, Paths}
 import java.security.SecureRandom
+import java.util.concurrent.{Callable, Executors}
 
 class SecretSharingSuite extends MyFunSuite {
   val randomGenerator = new RandomGenerator(new SecureRandom)
@@ -228,4 +229,131 @@ class SecretSharingSuite extends MyFunSuite {
     tracer.out().printfIndentln("partitions = (%s)", partitions.mkString(","))
     secretSharing.savePartition(Seq(4,2,2,1,1,1,1), Paths.get("json", "partition-1"))
   }
+
+  testWithTracing(this, "Standard-Primes-1") {
+    val tracer = getCurrentTracer()
+    StandardPrimes.primes
+      .filter(entry => entry._1 <= 1024)
+      .foreach({
+        case (bits, prime) =>
+          tracer.out().printfIndentln("bits = %d, prime = %s", bits, prime)
+          assert(prime.bitLength == bits)
+          assert(prime.isProbablePrime(CERTAINTY))
+      })
+  }
+
+  testWithTracing(this, "Sharing-3 (Standard Prime)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 12
+    val THRESHOLD = 4
+    val secret: IndexedSeq[Byte] = randomGenerator.byteStream.take(SECRET_SIZE).toIndexedSeq
+    tracer.out().printfIndentln("secret = (%s)", formatBytes(secret))
+    val secretSharing = new SecretSharing(SHARES, THRESHOLD, secret, new SecureRandom, true)
+    tracer.out().printfIndentln("secretSharing = %s", secretSharing)
+    assert(secretSharing.prime == StandardPrimes.atLeast(secretSharing.s.bitLength + 1).get)
+    assert(secretSharing.prime == BigInt(2).pow(192) - BigInt(2).pow(64) - 1) // 16 secret bytes + 1 padding byte => 135 bits
+    assert(BigInt(secretSharing.sharePointsAsJson.getJsonNumber("Prime").bigIntegerValue()) == secretSharing.prime)
+    val secretMerging = SecretMerging(secretSharing.sharePoints.take(THRESHOLD), secretSharing.prime)
+    assert(secret == secretMerging.secretBytes)
+  }
+
+  /*
+   * The bulk generators must produce values within [0, p). Rejection sampling must give a uniform distribution even if
+   * p doesn't divide 2^bits.
+   */
+  testWithTracing(this, "Random-Generator-1") {
+    val tracer = getCurrentTracer()
+    val prime = BigInt(7)
+    val DRAWS = 70000
+    val values = randomGenerator.nextBigInts(DRAWS, 3, prime)
+    assert(values.forall(value => value >= 0 && value < prime))
+    val frequencies = values.groupBy(value => value).map(entry => (entry._1, entry._2.length))
+    tracer.out().printfIndentln("frequencies = %s", frequencies.toSeq.sortBy(entry => entry._1).mkString(","))
+    assert(frequencies.size == 7 && frequencies.values.forall(frequency => math.abs(frequency - DRAWS / 7) < DRAWS / 70))
+    val distinct = randomGenerator.nextDistinctBigInts(100, 8, BigInt(101), Set(BigInt(0)))
+    tracer.out().printfIndentln("distinct = (%s)", distinct.mkString(","))
+    assert(distinct.toSet == Range(1, 101).map(i => BigInt(i)).toSet)
+    val caught = intercept[IllegalArgumentException] {
+      randomGenerator.nextDistinctBigInts(101, 8, BigInt(101), Set(BigInt(0)))
+    }
+    tracer.out().printfIndentln("caught.getMessage = %s", caught.getMessage)
+    val bytes = randomGenerator.byteIterator.take(3 * RandomGenerator.BUFFER_SIZE + 1).toArray
+    assert(bytes.length == 3 * RandomGenerator.BUFFER_SIZE + 1)
+  }
+
+  /*
+   * Every thread must get its own random source which will be reused by subsequent calls. Installing another provider must take effect for the
+   * default constructors. The throughput of concurrent splitting is traced for one thread versus all processors.
+   */
+  testWithTracing(this, "Secure-Random-Provider-1") {
+    val tracer = getCurrentTracer()
+    val provider = new ThreadLocalSecureRandomProvider
+    val first = provider.secureRandom
+    assert(provider.secureRandom eq first)
+    val executorService = Executors.newSingleThreadExecutor()
+    try {
+      val task: Callable[SecureRandom] = () => provider.secureRandom
+      val other = executorService.submit(task).get()
+      assert(!(other eq first))
+    } finally {
+      executorService.shutdown()
+    }
+    val installed = SecureRandomProvider.installed
+    val fixed = new SecureRandom
+    try {
+      SecureRandomProvider.install(new SecureRandomProvider {
+        override def secureRandom: SecureRandom = fixed
+      })
+      assert(new SecretSharing(6, 3, "Secret".getBytes(StandardCharsets.UTF_8)).random eq fixed)
+    } finally {
+      SecureRandomProvider.install(installed)
+    }
+    val SPLITS = 256
+    val processors = Runtime.getRuntime.availableProcessors()
+    Seq(1, processors).foreach(threads => {
+      val pool = Executors.newFixedThreadPool(threads)
+      try {
+        val start = System.nanoTime()
+        val task: Callable[SecretSharing] = () => new SecretSharing(12, 4, "A-Password-For-Splitting".getBytes(StandardCharsets.UTF_8))
+        val futures = Range(0, SPLITS).map(_ => pool.submit(task))
+        futures.foreach(future => future.get())
+        val elapsed = (System.nanoTime() - start) / 1000000
+        tracer.out().printfIndentln("threads = %d, splits = %d, elapsed = %d ms", threads, SPLITS, elapsed)
+      } finally {
+        pool.shutdown()
+      }
+    })
+  }
+
+  /*
+   * All secrets of a batch share the prime and the x-coordinates. Any threshold of shares must recover each secret, and every custodian's slice must comprise
+   * the shares of all secrets.
+   */
+  testWithTracing(this, "Batch-Sharing-1") {
+    val tracer = getCurrentTracer()
+    val SECRETS = 500
+    val SECRET_SIZE = 16 // Bytes
+    val SHARES = 6
+    val THRESHOLD = 3
+    val secrets = Range(0, SECRETS).map(i => (String.format("secret-%d", i: Integer), randomGenerator.byteIterator.take(SECRET_SIZE).toIndexedSeq))
+    val batchSecretSharing = new BatchSecretSharing(SHARES, THRESHOLD, secrets, new SecureRandom, true)
+    tracer.out().printfIndentln("batchSecretSharing = %s", batchSecretSharing)
+    assert(batchSecretSharing.ys.length == SECRETS && batchSecretSharing.ys.forall(ys => ys.length == SHARES))
+    secrets.foreach({
+      case (id, secret) =>
+        val sharePoints = randomGenerator.random.shuffle(batchSecretSharing.sharePoints(id))
+        assert(SecretMerging(sharePoints.take(THRESHOLD), batchSecretSharing.prime).secretBytes == secret)
+        assert(SecretMerging(sharePoints.take(THRESHOLD - 1), batchSecretSharing.prime).secretBytes != secret)
+    })
+    val slices = batchSecretSharing.partitionAsJson(Array(2, 2, 1, 1))
+    assert(slices.size() == 4)
+    val slice = slices.getJsonObject(0)
+    assert(BatchSecretSharing.isBatch(slice))
+    assert(slice.getString("PartitionId") == batchSecretSharing.id)
+    assert(slice.getJsonArray(BatchSecretSharing.SECRETS).size() == SECRETS)
+    val secretSlice = slice.getJsonArray(BatchSecretSharing.SECRETS).getJsonObject(SECRETS - 1)
+    assert(secretSlice.getString("SecretId") == secrets.last._1)
+    assert(secretSlice.getJsonArray("SharePoints").size() == 2)
+  }
 }
\ No newline at end of file
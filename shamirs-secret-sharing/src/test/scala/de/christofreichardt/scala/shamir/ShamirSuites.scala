@@ -26,9 +26,14 @@ class ShamirSuites extends MySuites(
     new MyDummySuite(),
     new NewtonPolynomialSuite(),
     new NewtonInterpolationSuite(),
+    new LagrangeInterpolationSuite(),
+    new PrimeFieldSuite(),
+    new ParallelCertifierSuite(),
     new PolynomialSuite(),
     new SecretSharingSuite(),
     new SecretMergingSuite(),
+    new ByteWiseSecretSharingSuite(),
+    new StreamingSecretSharingSuite(),
     new BinomialCombinatorSuite()) {
   
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+/*
+ * Shamirs Keystore
+ *
+ * Copyright (C) 2017, 2024, Christof Reichardt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.christofreichardt.scala
+package shamir
+
+import de.christofreichardt.scalatest.MyFunSuite
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, EOFException, InputStream, OutputStream}
+import java.nio.file.{Files, NoSuchFileException, Paths}
+import java.security.SecureRandom
+
+class StreamingSecretSharingSuite extends MyFunSuite {
+  val random = new SecureRandom
+
+  def split(streamingSecretSharing: StreamingSecretSharing, secret: Array[Byte]): IndexedSeq[Array[Byte]] = {
+    val outs = Array.fill(streamingSecretSharing.shares)(new ByteArrayOutputStream)
+    val total = streamingSecretSharing.split(new ByteArrayInputStream(secret), outs.map(out => out: OutputStream))
+    assert(total == secret.length)
+    outs.toIndexedSeq.map(out => out.toByteArray)
+  }
+
+  def merge(shareStreams: IndexedSeq[Array[Byte]]): Array[Byte] = {
+    val out = new ByteArrayOutputStream
+    StreamingSecretMerging(shareStreams.map(bytes => new ByteArrayInputStream(bytes): InputStream).toArray).mergeInto(out)
+    out.toByteArray
+  }
+
+  /*
+   * The secret size isn't a multiple of the chunk size, hence the last chunk is a partial one.
+   */
+  testWithTracing(this, "Streaming-1") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 12345
+    val CHUNK_SIZE = 1000
+    val SHARES = 6
+    val THRESHOLD = 3
+    val secret = Array.ofDim[Byte](SECRET_SIZE)
+    random.nextBytes(secret)
+    val streamingSecretSharing = new StreamingSecretSharing(SHARES, THRESHOLD, CHUNK_SIZE, random)
+    tracer.out().printfIndentln("streamingSecretSharing = %s", streamingSecretSharing)
+    val shareStreams = split(streamingSecretSharing, secret)
+    assert(shareStreams.forall(shareStream => shareStream.length == ShareStreamHeader.SIZE + 13 * 4 + SECRET_SIZE + 4))
+    assert(merge(shareStreams.take(THRESHOLD)).sameElements(secret))
+    assert(merge(shareStreams.reverse).sameElements(secret))
+  }
+
+  testWithTracing(this, "Streaming-2 (Empty Secret)") {
+    val tracer = getCurrentTracer()
+    val streamingSecretSharing = new StreamingSecretSharing(3, 2)
+    val shareStreams = split(streamingSecretSharing, Array.emptyByteArray)
+    tracer.out().printfIndentln("shareStreams(0).length = %d", shareStreams(0).length: Integer)
+    assert(merge(shareStreams.take(2)).isEmpty)
+  }
+
+  testWithTracing(this, "Streaming-3 (Preconditions)") {
+    val tracer = getCurrentTracer()
+    val secret = Array.ofDim[Byte](5000)
+    random.nextBytes(secret)
+    val shareStreams = split(new StreamingSecretSharing(5, 3), secret)
+    val tooFew = intercept[IllegalArgumentException] {
+      merge(shareStreams.take(2))
+    }
+    tracer.out().printfIndentln("tooFew.getMessage = %s", tooFew.getMessage)
+    val otherStreams = split(new StreamingSecretSharing(5, 3), secret)
+    val inconsistent = intercept[IllegalArgumentException] {
+      merge(shareStreams.take(2) :+ otherStreams(2))
+    }
+    tracer.out().printfIndentln("inconsistent.getMessage = %s", inconsistent.getMessage)
+    val truncated = intercept[EOFException] {
+      merge(shareStreams.take(2) :+ shareStreams(2).take(shareStreams(2).length - 10))
+    }
+    tracer.out().printfIndentln("truncated.getMessage = %s", truncated.getMessage)
+  }
+
+  /*
+   * The throughput is measured in MB/s whereby a file of 16 MB will be split into five share files and recovered from three of them.
+   */
+  testWithTracing(this, "Streaming-4 (Throughput)") {
+    val tracer = getCurrentTracer()
+    val SECRET_SIZE = 16 * 1024 * 1024
+    val SHARES = 5
+    val THRESHOLD = 3
+    val directory = Files.createTempDirectory("streaming")
+    try {
+      val secretFile = directory.resolve("secret.bin")
+      val secret = Array.ofDim[Byte](SECRET_SIZE)
+      random.nextBytes(secret)
+      Files.write(secretFile, secret)
+      val shareFiles = Range(0, SHARES).map(i => directory.resolve("share-" + i + ".bin")).toArray
+      val streamingSecretSharing = new StreamingSecretSharing(SHARES, THRESHOLD)
+      val splitStart = System.nanoTime()
+      streamingSecretSharing.split(secretFile, shareFiles)
+      val splitElapsed = System.nanoTime() - splitStart
+      val recoveredFile = directory.resolve("recovered.bin")
+      val mergeStart = System.nanoTime()
+      StreamingSecretMerging.merge(shareFiles.takeRight(THRESHOLD), recoveredFile)
+      val mergeElapsed = System.nanoTime() - mergeStart
+      val megaBytes = SECRET_SIZE.toDouble / (1024 * 1024)
+      tracer.out().printfIndentln("split: %.1f MB/s, merge: %.1f MB/s", megaBytes / (splitElapsed / 1e9): java.lang.Double, megaBytes / (mergeElapsed / 1e9): java.lang.Double)
+      assert(Files.readAllBytes(recoveredFile).sameElements(secret))
+    } finally {
+      val paths = Files.list(directory)
+      try {
+        paths.forEach(path => Files.delete(path))
+      } finally {
+        paths.close()
+      }
+      Files.delete(directory)
+    }
+  }
+
+  /*
+   * A missing share file must be reported after the share files opened so far have been closed again. The same applies to a share file which can't be
+   * created when splitting.
+   */
+  testWithTracing(this, "Streaming-5 (Missing Share File)") {
+    val tracer = getCurrentTracer()
+    val SHARES = 4
+    val THRESHOLD = 3
+    val directory = Files.createTempDirectory("streaming")
+    try {
+      val secretFile = directory.resolve("secret.bin")
+      val secret = Array.ofDim[Byte](5000)
+      random.nextBytes(secret)
+      Files.write(secretFile, secret)
+      val shareFiles = Range(0, SHARES).map(i => directory.resolve("share-" + i + ".bin")).toArray
+      val streamingSecretSharing = new StreamingSecretSharing(SHARES, THRESHOLD)
+      val unwritable = intercept[NoSuchFileException] {
+        streamingSecretSharing.split(secretFile, shareFiles.init :+ directory.resolve("missing").resolve("share.bin"))
+      }
+      tracer.out().printfIndentln("unwritable.getMessage = %s", unwritable.getMessage)
+      streamingSecretSharing.split(secretFile, shareFiles)
+      val recoveredFile = directory.resolve("recovered.bin")
+      val missing = intercept[NoSuchFileException] {
+        StreamingSecretMerging.merge(shareFiles.take(THRESHOLD - 1) :+ directory.resolve("missing.bin"), recoveredFile)
+      }
+      tracer.out().printfIndentln("missing.getMessage = %s", missing.getMessage)
+      assert(!Files.exists(recoveredFile))
+      StreamingSecretMerging.merge(shareFiles.take(THRESHOLD), recoveredFile)
+      assert(Files.readAllBytes(recoveredFile).sameElements(secret))
+    } finally {
+      val paths = Files.list(directory)
+      try {
+        paths.forEach(path => Files.delete(path))
+      } finally {
+        paths.close()
+      }
+      Files.delete(directory)
+    }
+  }
+}
\ No newline at end of file